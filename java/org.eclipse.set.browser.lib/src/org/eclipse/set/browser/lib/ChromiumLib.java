@@ -13,6 +13,8 @@
  */
 package org.eclipse.set.browser.lib;
 
+import java.nio.ByteBuffer;
+
 import org.eclipse.swt.internal.C;
 
 @SuppressWarnings("javadoc")
@@ -154,6 +156,15 @@ public class ChromiumLib extends C {
 	public static final native long allocate_cef_resource_handler_t(
 			final Object handler);
 
+	/**
+	 * @param handler
+	 *            the handler for callbacks
+	 * 
+	 * @return a raw pointer to the native object to be passed to other methods
+	 */
+	public static final native long allocate_cef_resource_request_handler_t(
+			final Object handler);
+
 	/**
 	 * @param handler
 	 *            the handler for callbacks
@@ -172,6 +183,18 @@ public class ChromiumLib extends C {
 	public static final native long allocate_cef_string_visitor_t(
 			Object handler);
 
+	/**
+	 * @param registrar
+	 *            the cef_scheme_registrar_t
+	 * @param scheme
+	 *            the scheme name
+	 * @param options
+	 *            a bitmask of cef_scheme_options_t values
+	 * @return 1 on success, 0 if the scheme is already registered
+	 */
+	public static final native int cefswt_add_custom_scheme(long registrar,
+			String scheme, int options);
+
 	/**
 	 * @param callback
 	 *            cast=(void *)
@@ -200,6 +223,20 @@ public class ChromiumLib extends C {
 	/** @method flags=no_gen */
 	public static final native String cefswt_cstring_to_java(long string);
 
+	/**
+	 * Wraps native memory in a direct {@link ByteBuffer} without copying
+	 * 
+	 * The buffer must not be used after the native memory has been released.
+	 * 
+	 * @param data
+	 *            pointer to the native memory
+	 * @param length
+	 *            size of the native memory in bytes
+	 * @return a direct buffer backed by the native memory
+	 */
+	public static final native ByteBuffer cefswt_direct_buffer(long data,
+			int length);
+
 	/**
 	 * @param callback
 	 *            cast=(void *)
@@ -214,11 +251,10 @@ public class ChromiumLib extends C {
 	/**
 	 * @param msg
 	 *            cast=(void *)
-	 * @param callback
-	 *            cast=(void *)
+	 * @return the id of the evaluation or -1, if the message is not an
+	 *         evaluation result
 	 */
-	public static final native void cefswt_function_arg(long msg, int index,
-			long callback);
+	public static final native int cefswt_eval_result_id(long msg);
 
 	/**
 	 * @param msg
@@ -229,12 +265,21 @@ public class ChromiumLib extends C {
 	public static final native void cefswt_function_id(long msg,
 			FunctionSt ret);
 
+	/**
+	 * Closes the connections to render processes which terminated
+	 */
+	public static final native void cefswt_function_prune();
+
 	/**
 	 * @param browser
 	 *            cast=(void *)
+	 * @param call
+	 *            the id of the call to return the value for
+	 * @param ret
+	 *            the encoded return value
 	 */
 	public static final native boolean cefswt_function_return(long browser,
-			int id, int port, int returnType, String ret);
+			int call, int process, int port, byte[] ret);
 
 	/**
 	 * @param browser
@@ -272,12 +317,51 @@ public class ChromiumLib extends C {
 	 */
 	public static final native boolean cefswt_is_same(long browser, long that);
 
+	/**
+	 * Wraps a binary value of a process message in a direct
+	 * {@link ByteBuffer} without copying
+	 * 
+	 * The buffer must not be used after the message has been processed.
+	 * 
+	 * @param msg
+	 *            cast=(void *)
+	 * @param index
+	 *            the index of the value in the message's argument list
+	 * @return a direct buffer backed by the value or null, if the value is
+	 *         not binary
+	 */
+	public static final native ByteBuffer cefswt_message_binary(long msg,
+			int index);
+
+	/**
+	 * @param msg
+	 *            cast=(void *)
+	 * @return the number of values in the message's argument list
+	 */
+	public static final native int cefswt_message_size(long msg);
+
 	public static final native void cefswt_register_http_host(String name,
 			long factory);
 
+	public static final native void cefswt_register_scheme_handler(
+			String scheme, String name, long factory);
+
+	/**
+	 * Releases the caller's reference to a scheme handler factory allocated
+	 * by {@link #allocate_cef_scheme_handler_factory_t(Object)}. It is freed
+	 * once CEF has dropped all registrations of the factory.
+	 * 
+	 * @param factory
+	 *            cast=(void *)
+	 */
+	public static final native void cefswt_release_scheme_handler_factory(
+			long factory);
+
 	/** @method flags=no_gen */
 	public static final native String cefswt_request_to_java(long request);
 
+	public static final native void cefswt_set_int64ptr(long ptr, long value);
+
 	public static final native void cefswt_set_intptr(long handle_request_ptr,
 			int value);
 
@@ -423,6 +507,16 @@ public class ChromiumLib extends C {
 	public static final native long deallocate_cef_resource_handler_t(
 			final long object);
 
+	/**
+	 * Deallocates memory
+	 * 
+	 * @param object
+	 *            the memory address allocated by
+	 *            allocate_cef_resource_request_handler_t
+	 */
+	public static final native long deallocate_cef_resource_request_handler_t(
+			final long object);
+
 	/**
 	 * Deallocates memory
 	 * 
@@ -14,7 +14,8 @@ package org.eclipse.set.browser.lib;
 
 @SuppressWarnings("javadoc")
 public class FunctionSt {
-	public int args;
+	public int call;
 	public int id;
 	public int port;
+	public int process;
 }
\ No newline at end of file
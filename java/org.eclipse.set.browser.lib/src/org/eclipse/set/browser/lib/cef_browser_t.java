@@ -24,18 +24,19 @@ public class cef_browser_t {
 			int force);
 
 	/**
+	 * Starts evaluating a script. The result is returned as a process message
+	 * (see {@link ChromiumLib#cefswt_eval_result_id(long)})
+	 * 
 	 * @param browser
 	 *            browser handle
 	 * @param script
 	 *            the script to evaluate
 	 * @param id
-	 *            id
-	 * @param callback
-	 *            handle to a callback
-	 * @return whether evaluation succeeded
+	 *            id to correlate the result with
+	 * @return whether the script was sent to the renderer
 	 */
 	public static final native boolean cefswt_eval(long browser, String script,
-			int id, long callback);
+			int id);
 
 	/**
 	 * @param browser
@@ -53,6 +54,37 @@ public class cef_browser_t {
 	 */
 	public static final native void cefswt_free(long browser);
 
+	/**
+	 * Adds a script to a batch evaluation
+	 * 
+	 * @param message
+	 *            the message returned by {@link #cefswt_eval_batch_create(int)}
+	 * @param script
+	 *            the script to evaluate
+	 */
+	public static final native void cefswt_eval_batch_add(long message,
+			String script);
+
+	/**
+	 * Creates a batch evaluation, whose results are returned in a single
+	 * process message
+	 * 
+	 * @param id
+	 *            id to correlate the results with
+	 * @return the process message to add scripts to
+	 */
+	public static final native long cefswt_eval_batch_create(int id);
+
+	/**
+	 * @param browser
+	 *            browser handle
+	 * @param message
+	 *            the message returned by {@link #cefswt_eval_batch_create(int)}
+	 * @return whether the scripts were sent to the renderer
+	 */
+	public static final native boolean cefswt_eval_batch_send(long browser,
+			long message);
+
 	/**
 	 * Registers a Javascript function
 	 * 
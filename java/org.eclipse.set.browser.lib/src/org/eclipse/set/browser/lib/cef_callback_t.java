@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.lib;
+
+/**
+ * JNI Interface for cef_callback_t-related functions
+ *
+ */
+public class cef_callback_t {
+	/**
+	 * Continues processing of a request which has been deferred
+	 * 
+	 * @param callback
+	 *            the callback handle
+	 */
+	public static final native void cefswt_callback_cont(long callback);
+
+	/**
+	 * Cancels processing of a request which has been deferred
+	 * 
+	 * @param callback
+	 *            the callback handle
+	 */
+	public static final native void cefswt_callback_cancel(long callback);
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.lib;
+
+import java.nio.ByteBuffer;
+
+/**
+ * JNI Interface for cef_post_data_t-related functions
+ *
+ */
+public class cef_post_data_t {
+	/**
+	 * Element type for empty elements (cef_postdataelement_type_t)
+	 */
+	public static final int PDE_TYPE_EMPTY = 0;
+	/**
+	 * Element type for in-memory elements (cef_postdataelement_type_t)
+	 */
+	public static final int PDE_TYPE_BYTES = 1;
+	/**
+	 * Element type for file elements (cef_postdataelement_type_t)
+	 */
+	public static final int PDE_TYPE_FILE = 2;
+
+	/**
+	 * @param element
+	 *            post data element handle
+	 * @param buffer
+	 *            a direct buffer to copy the element's bytes to
+	 * @return the number of bytes copied
+	 */
+	public static final native long cefswt_post_data_element_get_bytes(
+			long element, ByteBuffer buffer);
+
+	/**
+	 * @param element
+	 *            post data element handle
+	 * @return the number of bytes of the element
+	 */
+	public static final native long cefswt_post_data_element_get_bytes_count(
+			long element);
+
+	/**
+	 * @param element
+	 *            post data element handle
+	 * @return the file name of a file element
+	 */
+	public static final native String cefswt_post_data_element_get_file(
+			long element);
+
+	/**
+	 * @param element
+	 *            post data element handle
+	 * @return the element type (PDE_TYPE_*)
+	 */
+	public static final native int cefswt_post_data_element_get_type(
+			long element);
+
+	/**
+	 * Releases the reference to a post data element
+	 * 
+	 * @param element
+	 *            post data element handle
+	 */
+	public static final native void cefswt_post_data_element_release(
+			long element);
+
+	/**
+	 * @param post_data
+	 *            post data handle
+	 * @return the number of elements
+	 */
+	public static final native long cefswt_post_data_get_element_count(
+			long post_data);
+
+	/**
+	 * Fetches the elements of the post data. CEF only provides all elements
+	 * at once, so they are fetched in a single call.
+	 * 
+	 * @param post_data
+	 *            post data handle
+	 * @param elements
+	 *            the array to store the element handles in, which must be
+	 *            released with
+	 *            {@link #cefswt_post_data_element_release(long)}
+	 * @return the number of stored element handles
+	 */
+	public static final native long cefswt_post_data_get_elements(
+			long post_data, long[] elements);
+
+	/**
+	 * Releases the reference to the post data
+	 * 
+	 * @param post_data
+	 *            post data handle
+	 */
+	public static final native void cefswt_post_data_release(long post_data);
+}
@@ -23,6 +23,14 @@ public class cef_request_t {
 	public static final native String cefswt_request_get_header_by_name(
 			long cef_request_t, String name);
 
+	/**
+	 * @param cef_request_t
+	 *            request handle
+	 * @return all request headers as a flat array of name/value pairs
+	 */
+	public static final native String[] cefswt_request_get_header_map(
+			long cef_request_t);
+
 	/**
 	 * @param cef_request_t
 	 *            request handle
@@ -31,6 +39,16 @@ public class cef_request_t {
 	public static final native String cefswt_request_get_method(
 			long cef_request_t);
 
+	/**
+	 * @param cef_request_t
+	 *            request handle
+	 * @return the post data handle or 0, if the request has no body. The
+	 *         handle must be released via
+	 *         {@link cef_post_data_t#cefswt_post_data_release(long)}
+	 */
+	public static final native long cefswt_request_get_post_data(
+			long cef_request_t);
+
 	/**
 	 * @param cef_request_t
 	 *            request handle
@@ -39,4 +57,16 @@ public class cef_request_t {
 	public static final native String cefswt_request_get_url(
 			long cef_request_t);
 
+	/**
+	 * Changes the request url. If called before the request is sent, the
+	 * request is redirected internally
+	 * 
+	 * @param cef_request_t
+	 *            request handle
+	 * @param url
+	 *            the new url
+	 */
+	public static final native void cefswt_request_set_url(long cef_request_t,
+			String url);
+
 }
@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.lib;
+
+/**
+ * JNI Interface for cef_resource_read_callback_t-related functions
+ *
+ */
+public class cef_resource_read_callback_t {
+	/**
+	 * Continues a read which has been deferred
+	 * 
+	 * @param callback
+	 *            the callback handle
+	 * @param bytes_read
+	 *            the number of bytes written to the read buffer, 0 if the
+	 *            response is complete or a negative error code
+	 */
+	public static final native void cefswt_resource_read_callback_cont(
+			long callback, int bytes_read);
+}
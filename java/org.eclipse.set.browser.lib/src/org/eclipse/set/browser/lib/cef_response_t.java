@@ -24,6 +24,17 @@ public class cef_response_t {
 	public static final native void cefswt_response_set_header(long response,
 			String name, String value);
 
+	/**
+	 * Replaces all response headers
+	 * 
+	 * @param response
+	 *            response handle
+	 * @param headers
+	 *            a flat array of header name/value pairs
+	 */
+	public static final native void cefswt_response_set_header_map(
+			long response, String[] headers);
+
 	/**
 	 * @param cef_response
 	 *            response handle
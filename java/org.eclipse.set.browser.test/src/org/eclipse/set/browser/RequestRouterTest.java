@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.set.browser.RequestHandler.Request;
+import org.eclipse.set.browser.RequestRouter.Match;
+import org.eclipse.set.browser.RequestRouter.MatchedRequest;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RequestRouter}
+ */
+class RequestRouterTest {
+	private static Request request(final String method, final String url) {
+		return new Request() {
+			@Override
+			public InputStream getBody() {
+				return InputStream.nullInputStream();
+			}
+
+			@Override
+			public String getHeader(final String headerName) {
+				return null;
+			}
+
+			@Override
+			public Map<String, List<String>> getHeaders() {
+				return Map.of();
+			}
+
+			@Override
+			public String getMethod() {
+				return method;
+			}
+
+			@Override
+			public String getURL() {
+				return url;
+			}
+		};
+	}
+
+	// Name of the handler matched by the last request and its parameters
+	private String matched;
+	private Map<String, String> parameters;
+
+	@Test
+	void duplicateRoute() {
+		final RequestRouter router = new RequestRouter()
+				.route("GET", "/api/items", handler("items"));
+		assertThrows(IllegalArgumentException.class,
+				() -> router.route("GET", "/api/items/", handler("items")));
+	}
+
+	@Test
+	void encodedSegments() throws Exception {
+		final RequestRouter router = new RequestRouter()
+				.route("GET", "/files/{name}", handler("file"))
+				.route("GET", "/files/a b", handler("literal"));
+		assertEquals("file", route(router, "/files/a%2Fb"));
+		assertEquals(Map.of("name", "a/b"), parameters);
+		assertEquals("file", route(router, "/files/100%25"));
+		assertEquals(Map.of("name", "100%"), parameters);
+		assertEquals("literal", route(router, "/files/a%20b"));
+		assertNull(route(router, "/files/a/b"));
+	}
+
+	@Test
+	void literalBeforeParameterBeforeWildcard() throws Exception {
+		final RequestRouter router = new RequestRouter()
+				.route("GET", "/api/*", handler("wildcard"))
+				.route("GET", "/api/items/{id}", handler("parameter"))
+				.route("GET", "/api/items/new", handler("literal"));
+		assertEquals("literal", route(router, "/api/items/new"));
+		assertEquals("parameter", route(router, "/api/items/1"));
+		assertEquals(Map.of("id", "1"), parameters);
+		assertEquals("wildcard", route(router, "/api/items/1/parts"));
+		assertEquals(Map.of("*", "items/1/parts"), parameters);
+		assertEquals("wildcard", route(router, "/api/other"));
+	}
+
+	@Test
+	void matchedRequest() throws Exception {
+		final RequestRouter router = new RequestRouter()
+				.route("GET", "/api/items/{id}", handler("item"));
+		final Request request = request("GET", "https://app.local/api/items/1");
+		final AtomicReference<Match> stored = new AtomicReference<>();
+		final MatchedRequest matchedRequest = new MatchedRequest() {
+			@Override
+			public InputStream getBody() {
+				return request.getBody();
+			}
+
+			@Override
+			public String getHeader(final String headerName) {
+				return request.getHeader(headerName);
+			}
+
+			@Override
+			public Map<String, List<String>> getHeaders() {
+				return request.getHeaders();
+			}
+
+			@Override
+			public Match getMatch() {
+				return stored.get();
+			}
+
+			@Override
+			public String getMethod() {
+				return request.getMethod();
+			}
+
+			@Override
+			public String getURL() {
+				return request.getURL();
+			}
+
+			@Override
+			public void setMatch(final Match match) {
+				stored.set(match);
+			}
+		};
+
+		router.getValidator(matchedRequest);
+		final Match match = stored.get();
+		assertEquals("GET /api/items/{id}", match.getRoute());
+		router.onRequest(matchedRequest, null);
+		assertSame(match, stored.get());
+		assertEquals("GET /api/items/{id}", router.getRoute(matchedRequest));
+
+		// A match of another router is replaced
+		final RequestRouter other = new RequestRouter();
+		assertNull(other.getRoute(matchedRequest));
+		assertNull(stored.get().getRoute());
+	}
+
+	@Test
+	void methodBeforeAnyMethod() throws Exception {
+		final RequestRouter router = new RequestRouter()
+				.route(null, "/api/items", handler("any"))
+				.route("GET", "/api/items", handler("get"));
+		assertEquals("get", route(router, "GET", "/api/items"));
+		assertEquals("any", route(router, "POST", "/api/items"));
+	}
+
+	@Test
+	void noMatch() throws Exception {
+		final RequestRouter router = new RequestRouter()
+				.route("GET", "/api/items/{id}", handler("item"));
+		assertNull(route(router, "/api/items"));
+		assertNull(route(router, "/api/items/1/parts"));
+		assertNull(route(router, "POST", "/api/items/1"));
+	}
+
+	@Test
+	void parameterBacktracksToWildcard() throws Exception {
+		final RequestRouter router = new RequestRouter()
+				.route("GET", "/api/{id}/parts", handler("parts"))
+				.route("GET", "/api/*", handler("wildcard"));
+		assertEquals("parts", route(router, "/api/1/parts"));
+		assertEquals("wildcard", route(router, "/api/1/other"));
+	}
+
+	@Test
+	void rootWildcard() throws Exception {
+		final RequestRouter router = new RequestRouter().route(null, "/*",
+				handler("root"));
+		assertEquals("root", route(router, "/"));
+		assertEquals(Map.of("*", ""), parameters);
+		assertEquals("root", route(router, ""));
+		assertEquals("root", route(router, "/index.html"));
+		assertEquals("root", route(router, "/assets/app.js"));
+	}
+
+	@Test
+	void trailingWildcard() throws Exception {
+		final RequestRouter router = new RequestRouter()
+				.route("GET", "/api/*", handler("wildcard"))
+				.route("GET", "/api/items", handler("items"));
+		assertEquals("wildcard", route(router, "/api/"));
+		assertEquals(Map.of("*", ""), parameters);
+		assertEquals("wildcard", route(router, "/api"));
+		assertEquals("items", route(router, "/api/items/"));
+		assertNull(route(router, "/other"));
+	}
+
+	@Test
+	void wildcardMustBeLast() {
+		final RequestRouter router = new RequestRouter();
+		assertThrows(IllegalArgumentException.class,
+				() -> router.route("GET", "/api/*/items", handler("items")));
+	}
+
+	@Test
+	void wildcardParameter() throws Exception {
+		final RequestRouter router = new RequestRouter()
+				.route("GET", "/files/{dir}/*", handler("files"));
+		assertEquals("files", route(router, "/files/a/b//c"));
+		assertEquals(Map.of("dir", "a", "*", "b/c"), parameters);
+		assertEquals("files", route(router, "/files/a/"));
+		assertEquals(Map.of("dir", "a", "*", ""), parameters);
+	}
+
+	private RequestHandler handler(final String name) {
+		return new RequestHandler() {
+			@Override
+			public ResponseValidator getValidator(final Request request) {
+				matched = name;
+				parameters = request.getPathParameters();
+				return null;
+			}
+
+			@Override
+			public void onRequest(final Request request,
+					final Response response) {
+				// Only matching is tested
+			}
+		};
+	}
+
+	private String route(final RequestRouter router, final String path)
+			throws Exception {
+		return route(router, "GET", path);
+	}
+
+	private String route(final RequestRouter router, final String method,
+			final String path) throws Exception {
+		matched = null;
+		parameters = null;
+		router.getValidator(request(method, "https://app.local" + path));
+		return matched;
+	}
+}
@@ -0,0 +1,299 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.set.browser.RequestHandler.Request;
+import org.eclipse.set.browser.RequestHandler.Response;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ZipRequestHandler}
+ */
+class ZipRequestHandlerTest {
+	private static final class ResponseImpl implements Response {
+		byte[] data;
+		final Map<String, String> headers = new HashMap<>();
+		String mimeType;
+		int status = 200;
+
+		@Override
+		public void setHeader(final String headerName,
+				final String headerValue) {
+			headers.put(headerName, headerValue);
+		}
+
+		@Override
+		public void setMimeType(final String type) {
+			mimeType = type;
+		}
+
+		@Override
+		public void setResponseData(final InputStream stream) {
+			try (stream) {
+				data = stream.readAllBytes();
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void setResponseData(final String text) {
+			data = text.getBytes(UTF_8);
+		}
+
+		@Override
+		public void setStatus(final int statusCode) {
+			status = statusCode;
+		}
+	}
+
+	private static final byte[] INDEX = "<html></html>".getBytes(UTF_8);
+	// Repetitive, so that deflating shrinks it
+	private static final byte[] TEXT = "Hello, world! ".repeat(64)
+			.getBytes(UTF_8);
+
+	private static Path archive(final byte[] preamble, final int method,
+			final Map<String, byte[]> entries) throws IOException {
+		final Path path = Files.createTempFile("archive", ".zip");
+		try (OutputStream file = Files.newOutputStream(path)) {
+			// The archive's offsets do not include the preamble, as if it
+			// was concatenated with the archive
+			file.write(preamble);
+			final ZipOutputStream zip = new ZipOutputStream(file);
+			for (final Map.Entry<String, byte[]> entry : entries
+					.entrySet()) {
+				final ZipEntry zipEntry = new ZipEntry(entry.getKey());
+				zipEntry.setMethod(method);
+				if (method == ZipEntry.STORED) {
+					final CRC32 crc = new CRC32();
+					crc.update(entry.getValue());
+					zipEntry.setCrc(crc.getValue());
+					zipEntry.setSize(entry.getValue().length);
+				}
+				zip.putNextEntry(zipEntry);
+				zip.write(entry.getValue());
+				zip.closeEntry();
+			}
+			zip.finish();
+		}
+		return path;
+	}
+
+	private static Path archive(final int method,
+			final Map<String, byte[]> entries) throws IOException {
+		return archive(new byte[0], method, entries);
+	}
+
+	private static Map<String, byte[]> entries() {
+		final Map<String, byte[]> entries = new LinkedHashMap<>();
+		entries.put("index.html", INDEX);
+		entries.put("assets/", new byte[0]);
+		entries.put("assets/text.txt", TEXT);
+		return entries;
+	}
+
+	private static Request request(final String method, final String path,
+			final String acceptEncoding) {
+		return new Request() {
+			@Override
+			public String getHeader(final String headerName) {
+				return "Accept-Encoding".equalsIgnoreCase(headerName)
+						? acceptEncoding
+						: null;
+			}
+
+			@Override
+			public String getMethod() {
+				return method;
+			}
+
+			@Override
+			public String getURL() {
+				return "https://app.local" + path;
+			}
+		};
+	}
+
+	private static ResponseImpl respond(final ZipRequestHandler handler,
+			final String path) throws IOException {
+		return respond(handler, "GET", path, null);
+	}
+
+	private static ResponseImpl respond(final ZipRequestHandler handler,
+			final String method, final String path,
+			final String acceptEncoding) throws IOException {
+		final ResponseImpl response = new ResponseImpl();
+		handler.onRequest(request(method, path, acceptEncoding), response);
+		return response;
+	}
+
+	@Test
+	void deflated() throws IOException {
+		final Path path = archive(ZipEntry.DEFLATED, entries());
+		try (ZipRequestHandler handler = new ZipRequestHandler(path)) {
+			final ResponseImpl inflated = respond(handler,
+					"/assets/text.txt");
+			assertArrayEquals(TEXT, inflated.data);
+			assertNull(inflated.headers.get("Content-Encoding"));
+
+			final ResponseImpl passedThrough = respond(handler, "GET",
+					"/assets/text.txt", "gzip, deflate");
+			assertEquals("deflate",
+					passedThrough.headers.get("Content-Encoding"));
+			assertTrue(passedThrough.data.length < TEXT.length);
+			try (InputStream stream = new InflaterInputStream(
+					new ByteArrayInputStream(passedThrough.data),
+					new Inflater(true))) {
+				assertArrayEquals(TEXT, stream.readAllBytes());
+			}
+
+			final ResponseImpl rejected = respond(handler, "GET",
+					"/assets/text.txt", "deflate;q=0");
+			assertArrayEquals(TEXT, rejected.data);
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	void directory() throws IOException {
+		final Map<String, byte[]> entries = new LinkedHashMap<>();
+		entries.put("web/index.html", INDEX);
+		entries.put("web/text.txt", TEXT);
+		entries.put("other.txt", TEXT);
+		final Path path = archive(ZipEntry.DEFLATED, entries);
+		try (ZipRequestHandler handler = new ZipRequestHandler(path,
+				"/web")) {
+			assertArrayEquals(INDEX, respond(handler, "/").data);
+			assertArrayEquals(TEXT, respond(handler, "/text.txt").data);
+			assertEquals(404, respond(handler, "/other.txt").status);
+			assertEquals(404, respond(handler, "/web/text.txt").status);
+			assertEquals(404, respond(handler, "/../other.txt").status);
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	void interrupted() throws IOException {
+		final Path path = archive(ZipEntry.STORED, entries());
+		try (ZipRequestHandler handler = new ZipRequestHandler(path)) {
+			// An interrupt closes the archive file while reading it
+			Thread.currentThread().interrupt();
+			try {
+				assertThrows(ClosedByInterruptException.class,
+						() -> respond(handler, "/assets/text.txt"));
+			} finally {
+				Thread.interrupted();
+			}
+			assertArrayEquals(TEXT,
+					respond(handler, "/assets/text.txt").data);
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	void prefixed() throws IOException {
+		final byte[] script = "#!/bin/sh\nexec java -jar \"$0\" \"$@\"\n"
+				.getBytes(UTF_8);
+		final Path path = archive(script, ZipEntry.DEFLATED, entries());
+		try (ZipRequestHandler handler = new ZipRequestHandler(path)) {
+			assertArrayEquals(INDEX, respond(handler, "/").data);
+			assertArrayEquals(TEXT,
+					respond(handler, "/assets/text.txt").data);
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	void stored() throws IOException {
+		final Path path = archive(ZipEntry.STORED, entries());
+		try (ZipRequestHandler handler = new ZipRequestHandler(path)) {
+			final ResponseImpl index = respond(handler, "/");
+			assertEquals(200, index.status);
+			assertEquals("text/html", index.mimeType);
+			assertArrayEquals(INDEX, index.data);
+
+			final ResponseImpl text = respond(handler, "/assets/text.txt");
+			assertEquals("text/plain", text.mimeType);
+			assertArrayEquals(TEXT, text.data);
+			// Stored entries are never encoded
+			assertNull(respond(handler, "GET", "/assets/text.txt",
+					"deflate").headers.get("Content-Encoding"));
+
+			// Only paths ending with a slash are directories
+			assertEquals(404, respond(handler, "/assets").status);
+			assertEquals(404, respond(handler, "/missing.txt").status);
+			assertEquals(404, respond(handler, "POST", "/index.html",
+					null).status);
+			assertArrayEquals(INDEX, respond(handler, "HEAD", "/index.html",
+					null).data);
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	void zip64() throws IOException {
+		// More entries than the regular end record can count
+		final Map<String, byte[]> entries = new LinkedHashMap<>();
+		for (int i = 0; i <= 0xffff; i++) {
+			entries.put("entries/" + i + ".txt",
+					Integer.toString(i).getBytes(UTF_8));
+		}
+		entries.put("index.html", INDEX);
+		final Path path = archive("prefix".getBytes(UTF_8),
+				ZipEntry.DEFLATED, entries);
+		try (ZipRequestHandler handler = new ZipRequestHandler(path)) {
+			// The zip64 end of central directory locator precedes the end
+			// record
+			final ByteBuffer archive = ByteBuffer
+					.wrap(Files.readAllBytes(path))
+					.order(ByteOrder.LITTLE_ENDIAN);
+			assertEquals(0x07064b50,
+					archive.getInt(archive.capacity() - 22 - 20));
+
+			assertArrayEquals(INDEX, respond(handler, "/").data);
+			assertArrayEquals("65535".getBytes(UTF_8),
+					respond(handler, "/entries/65535.txt").data);
+			assertArrayEquals("0".getBytes(UTF_8),
+					respond(handler, "/entries/0.txt").data);
+		} finally {
+			Files.delete(path);
+		}
+	}
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ValueCodec}
+ */
+class ValueCodecTest {
+	private record Item(int id, String name, String[] tags) {
+	}
+
+	private static void assertInvalid(final byte[] encoded) {
+		final SWTException e = assertThrows(SWTException.class,
+				() -> ValueCodec.decode(ByteBuffer.wrap(encoded)));
+		assertEquals(SWT.ERROR_INVALID_RETURN_VALUE, e.code);
+	}
+
+	private static Object nest(final int depth) {
+		Object value = null;
+		for (int i = 0; i < depth; i++) {
+			value = new Object[] { value };
+		}
+		return value;
+	}
+
+	private static Object roundTrip(final Object value) {
+		return ValueCodec.decode(ByteBuffer.wrap(ValueCodec.encode(value)));
+	}
+
+	@Test
+	void byteBuffer() {
+		final ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+		buffer.position(1);
+		assertArrayEquals(new byte[] { 2, 3, 4 },
+				(byte[]) roundTrip(buffer));
+		// The buffer itself is not consumed
+		assertEquals(1, buffer.position());
+		assertArrayEquals(new byte[0],
+				(byte[]) roundTrip(ByteBuffer.allocateDirect(0)));
+	}
+
+	@Test
+	void cyclicMap() {
+		final Map<String, Object> map = new HashMap<>();
+		map.put("self", map);
+		final SWTException e = assertThrows(SWTException.class,
+				() -> roundTrip(map));
+		assertEquals(SWT.ERROR_FAILED_EVALUATE, e.code);
+		assertEquals("Cyclic value", e.getMessage());
+
+		// Values referenced repeatedly without a cycle are encoded each time
+		final Object[] shared = { "a" };
+		assertArrayEquals(
+				new Object[] { new Object[] { "a" }, new Object[] { "a" } },
+				(Object[]) roundTrip(new Object[] { shared, shared }));
+	}
+
+	@Test
+	void depthLimit() {
+		// Arrays nested up to the limit are encoded and decoded
+		Object value = roundTrip(nest(ValueCodec.MAX_DEPTH));
+		for (int i = 0; i < ValueCodec.MAX_DEPTH; i++) {
+			value = ((Object[]) value)[0];
+		}
+		assertNull(value);
+
+		// Deeper values are encoded as an error
+		final SWTException encoded = assertThrows(SWTException.class,
+				() -> roundTrip(nest(ValueCodec.MAX_DEPTH + 1)));
+		assertEquals(SWT.ERROR_FAILED_EVALUATE, encoded.code);
+		assertEquals("Value nested too deeply", encoded.getMessage());
+
+		// and rejected when decoding
+		final ByteBuffer deep = ByteBuffer
+				.allocate(5 * (ValueCodec.MAX_DEPTH + 1) + 1)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i <= ValueCodec.MAX_DEPTH; i++) {
+			deep.put(ValueCodec.ARRAY).putInt(1);
+		}
+		deep.put(ValueCodec.NULL);
+		assertInvalid(deep.array());
+	}
+
+	@Test
+	void invalidValues() {
+		// Truncated string
+		final byte[] string = ValueCodec.encode("text");
+		assertInvalid(Arrays.copyOf(string, string.length - 1));
+		// Truncated array
+		final byte[] array = ValueCodec.encode(new Object[] { "a", "b" });
+		assertInvalid(Arrays.copyOf(array, array.length - 2));
+		// Negative count and length
+		assertInvalid(ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN)
+				.put(ValueCodec.ARRAY).putInt(-1).array());
+		assertInvalid(ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN)
+				.put(ValueCodec.STRING).putInt(-1).array());
+		// Count exceeding the remaining bytes
+		assertInvalid(ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN)
+				.put(ValueCodec.OBJECT).putInt(1000).array());
+		// Unknown tag
+		assertInvalid(new byte[] { 42 });
+		assertInvalid(new byte[0]);
+	}
+
+	@Test
+	void nestedValues() {
+		final Map<String, Object> inner = new LinkedHashMap<>();
+		inner.put("flag", Boolean.TRUE);
+		inner.put("ratio", Double.valueOf(0.5));
+		inner.put("empty", new int[0]);
+		final Map<String, Object> map = new LinkedHashMap<>();
+		map.put("values", new Object[] { Integer.valueOf(1), "two", null,
+				new long[] { 3, 4 } });
+		map.put("inner", inner);
+		map.put("text", "ä€");
+
+		final Map<?, ?> decoded = (Map<?, ?>) roundTrip(map);
+		assertEquals(List.of("values", "inner", "text"),
+				List.copyOf(decoded.keySet()));
+		assertArrayEquals(new Object[] { Double.valueOf(1), "two", null,
+				new Object[] { Double.valueOf(3), Double.valueOf(4) } },
+				(Object[]) decoded.get("values"));
+		final Map<?, ?> decodedInner = (Map<?, ?>) decoded.get("inner");
+		assertEquals(Boolean.TRUE, decodedInner.get("flag"));
+		assertEquals(Double.valueOf(0.5), decodedInner.get("ratio"));
+		assertArrayEquals(new Object[0],
+				(Object[]) decodedInner.get("empty"));
+		assertEquals("ä€", decoded.get("text"));
+	}
+
+	@Test
+	void record() {
+		final Map<?, ?> decoded = (Map<?, ?>) roundTrip(
+				new Item(7, "item", new String[] { "a", "b" }));
+		assertEquals(List.of("id", "name", "tags"),
+				List.copyOf(decoded.keySet()));
+		assertEquals(Double.valueOf(7), decoded.get("id"));
+		assertEquals("item", decoded.get("name"));
+		assertArrayEquals(new Object[] { "a", "b" },
+				(Object[]) decoded.get("tags"));
+	}
+}
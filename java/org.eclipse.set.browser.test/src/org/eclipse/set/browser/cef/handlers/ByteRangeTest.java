@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ByteRange}
+ */
+class ByteRangeTest {
+	private static void assertRange(final long start, final long end,
+			final ByteRange range) {
+		assertEquals(start, range.getStart());
+		assertEquals(end, range.getEnd());
+		assertEquals(end - start + 1, range.getLength());
+	}
+
+	@Test
+	void closedRange() {
+		assertRange(0, 9, ByteRange.parse("bytes=0-9", 100));
+		assertRange(10, 10, ByteRange.parse("bytes=10-10", 100));
+		assertRange(5, 9, ByteRange.parse("Bytes= 5 - 9 ", 100));
+		// The end is limited to the content
+		assertRange(90, 99, ByteRange.parse("bytes=90-200", 100));
+	}
+
+	@Test
+	void ignored() {
+		assertNull(ByteRange.parse(null, 100));
+		assertNull(ByteRange.parse("items=0-9", 100));
+		assertNull(ByteRange.parse("bytes=0-9,20-29", 100));
+		assertNull(ByteRange.parse("bytes=9", 100));
+		assertNull(ByteRange.parse("bytes=a-9", 100));
+		assertNull(ByteRange.parse("bytes=-", 100));
+		// Invalid, as the end precedes the start
+		assertNull(ByteRange.parse("bytes=9-0", 100));
+		assertNull(ByteRange.parse("bytes=200-100", 100));
+	}
+
+	@Test
+	void openRange() {
+		assertRange(10, 99, ByteRange.parse("bytes=10-", 100));
+		assertRange(99, 99, ByteRange.parse("bytes=99-", 100));
+	}
+
+	@Test
+	void suffixRange() {
+		assertRange(90, 99, ByteRange.parse("bytes=-10", 100));
+		// The suffix is limited to the content
+		assertRange(0, 99, ByteRange.parse("bytes=-200", 100));
+	}
+
+	@Test
+	void unsatisfiable() {
+		assertSame(ByteRange.UNSATISFIABLE,
+				ByteRange.parse("bytes=100-", 100));
+		assertSame(ByteRange.UNSATISFIABLE,
+				ByteRange.parse("bytes=200-", 100));
+		assertSame(ByteRange.UNSATISFIABLE,
+				ByteRange.parse("bytes=100-199", 100));
+		assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=0-", 0));
+		assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 100));
+		assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-10", 0));
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Request handler serving binary data registered via
+ * {@link WebBrowser#registerBinaryData(Supplier)}
+ *
+ * Each registration is served once under an unguessable URL and removed
+ * afterwards. The data is passed to the browser as is, so it can be read as
+ * an ArrayBuffer via fetch() without any conversion.
+ */
+final class BinaryDataRequestHandler implements RequestHandler {
+	/**
+	 * Internal hostname the data is served on
+	 */
+	static final String HOSTNAME = "binary-data.set-browser";
+
+	private static final String URL_PREFIX = "https://" + HOSTNAME + "/";
+
+	private final Map<String, Supplier<ByteBuffer>> data = new ConcurrentHashMap<>();
+
+	@Override
+	public void onRequest(final Request request, final Response response) {
+		// Data is fetched from the page's origin
+		response.setHeader("Access-Control-Allow-Origin", "*");
+		response.setHeader("Cache-Control", "no-store");
+
+		final String url = request.getURL();
+		final Supplier<ByteBuffer> supplier = url.startsWith(URL_PREFIX)
+				? data.remove(url.substring(URL_PREFIX.length()))
+				: null;
+		if (supplier == null) {
+			response.setStatus(404);
+			response.setResponseData("Not found");
+			return;
+		}
+		response.setMimeType("application/octet-stream");
+		response.setResponseData(supplier.get());
+	}
+
+	/**
+	 * @param supplier
+	 *            the supplier of the data
+	 * @return the URL to fetch the data from
+	 */
+	String register(final Supplier<ByteBuffer> supplier) {
+		final String token = UUID.randomUUID().toString();
+		data.put(token, supplier);
+		return URL_PREFIX + token;
+	}
+
+	/**
+	 * @param url
+	 *            the URL returned by {@link #register(Supplier)}
+	 * @return whether the data was registered and not yet fetched
+	 */
+	boolean unregister(final String url) {
+		return url.startsWith(URL_PREFIX)
+				&& data.remove(url.substring(URL_PREFIX.length())) != null;
+	}
+}
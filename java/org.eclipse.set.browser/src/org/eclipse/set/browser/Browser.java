@@ -8,7 +8,17 @@
  */
 package org.eclipse.set.browser;
 
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
 
 /**
  * Browser implementation
@@ -27,6 +37,141 @@ public class Browser extends org.eclipse.set.browser.swt.Browser {
 		super(parent, style);
 	}
 
+	/**
+	 * Evaluates a script without blocking the caller or running a nested
+	 * event loop. Multiple evaluations may be pending at the same time.
+	 * <p>
+	 * The future is completed on the UI thread with the return value of the
+	 * script, mapped as described in {@link #evaluate(String)}. It completes
+	 * exceptionally with an <code>SWTException</code> if the evaluation
+	 * fails. Cancelling the future discards the result, but does not stop a
+	 * script which is already running.
+	 * </p>
+	 * 
+	 * @param script
+	 *            the script with javascript commands
+	 * @return a future for the return value of the script
+	 * 
+	 * @exception IllegalArgumentException
+	 *                <ul>
+	 *                <li>ERROR_NULL_ARGUMENT - if the script is null</li>
+	 *                </ul>
+	 * 
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS when called from the wrong
+	 *                thread</li>
+	 *                <li>ERROR_WIDGET_DISPOSED when the widget has been
+	 *                disposed</li>
+	 *                </ul>
+	 */
+	public CompletableFuture<Object> evaluateAsync(final String script) {
+		checkWidget();
+		if (script == null) {
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		}
+		return webBrowser.evaluateAsync(script);
+	}
+
+	/**
+	 * Evaluates a script without blocking the caller
+	 * 
+	 * @param script
+	 *            the script with javascript commands
+	 * @param timeout
+	 *            the time after which the future completes exceptionally on
+	 *            the UI thread with a {@link TimeoutException}, if the script
+	 *            has not returned
+	 * @return a future for the return value of the script
+	 * 
+	 * @exception IllegalArgumentException
+	 *                <ul>
+	 *                <li>ERROR_NULL_ARGUMENT - if the script or the timeout is
+	 *                null</li>
+	 *                <li>ERROR_INVALID_ARGUMENT - if the timeout is not
+	 *                positive</li>
+	 *                </ul>
+	 * @see #evaluateAsync(String)
+	 */
+	public CompletableFuture<Object> evaluateAsync(final String script,
+			final Duration timeout) {
+		if (timeout == null) {
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		}
+		// A negative delay would cancel the timer instead of scheduling it
+		if (timeout.isZero() || timeout.isNegative()) {
+			SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+		}
+		final CompletableFuture<Object> future = evaluateAsync(script);
+		final Display display = getDisplay();
+		final Runnable expire = () -> future.completeExceptionally(
+				new TimeoutException("Evaluation timed out"));
+		display.timerExec(
+				(int) Math.min(timeout.toMillis(), Integer.MAX_VALUE), expire);
+		future.whenComplete((result, e) -> {
+			// Cancelling the future may happen on any thread, in which case
+			// the timer runs out without effect
+			if (display.getThread() == Thread.currentThread()) {
+				display.timerExec(-1, expire);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Evaluates multiple scripts in a single round trip to the renderer.
+	 * <p>
+	 * The scripts are evaluated in order, each like a script passed to
+	 * {@link #evaluate(String)}. A script which fails does not prevent the
+	 * following scripts from being evaluated. Instead, its entry in the
+	 * result contains an <code>SWTException</code> describing the failure.
+	 * </p>
+	 * 
+	 * @param scripts
+	 *            the scripts with javascript commands
+	 * @return the return values of the scripts in the order of the scripts
+	 * 
+	 * @exception IllegalArgumentException
+	 *                <ul>
+	 *                <li>ERROR_NULL_ARGUMENT - if the scripts or one of the
+	 *                scripts are null</li>
+	 *                </ul>
+	 * 
+	 * @exception SWTException
+	 *                <ul>
+	 *                <li>ERROR_FAILED_EVALUATE when the scripts do not complete
+	 *                within the
+	 *                {@link org.eclipse.set.browser.cef.CEFConfiguration#ScriptTimeout},
+	 *                if one is configured, or when called from a
+	 *                BrowserFunction</li>
+	 *                <li>ERROR_THREAD_INVALID_ACCESS when called from the wrong
+	 *                thread</li>
+	 *                <li>ERROR_WIDGET_DISPOSED when the widget has been
+	 *                disposed</li>
+	 *                </ul>
+	 */
+	public Object[] evaluateBatch(final List<String> scripts) {
+		checkScripts(scripts);
+		return webBrowser.evaluateBatch(scripts);
+	}
+
+	/**
+	 * Evaluates multiple scripts in a single round trip to the renderer
+	 * without blocking the caller
+	 * 
+	 * @param scripts
+	 *            the scripts with javascript commands
+	 * @return a future completed on the UI thread with the return values of
+	 *         the scripts
+	 * @see #evaluateBatch(List)
+	 * @see #evaluateAsync(String)
+	 */
+	public CompletableFuture<Object[]> evaluateBatchAsync(
+			final List<String> scripts) {
+		checkScripts(scripts);
+		return webBrowser.evaluateBatchAsync(scripts);
+	}
+
 	/**
 	 * @return the download listener
 	 */
@@ -34,6 +179,34 @@ public class Browser extends org.eclipse.set.browser.swt.Browser {
 		return webBrowser.getDownloadListener();
 	}
 
+	/**
+	 * Provides binary data to JavaScript, e.g. a large table returned from a
+	 * {@link org.eclipse.set.browser.swt.BrowserFunction} as its URL instead
+	 * of its content. The data is served once under the returned URL and can
+	 * be read via <code>fetch(url).then(r =&gt; r.arrayBuffer())</code>.
+	 * 
+	 * @param data
+	 *            the data. The buffer is not modified
+	 * @return the one-shot URL to fetch the data from
+	 */
+	public String registerBinaryData(final ByteBuffer data) {
+		return webBrowser.registerBinaryData(() -> data);
+	}
+
+	/**
+	 * Provides binary data to JavaScript, which is generated when it is
+	 * fetched
+	 * 
+	 * @param supplier
+	 *            the supplier of the data. It is called on a request
+	 *            executor thread when the URL is fetched
+	 * @return the one-shot URL to fetch the data from
+	 * @see #registerBinaryData(ByteBuffer)
+	 */
+	public String registerBinaryData(final Supplier<ByteBuffer> supplier) {
+		return webBrowser.registerBinaryData(supplier);
+	}
+
 	/**
 	 * Registers a request handler to handle https://hostname requests.
 	 * 
@@ -55,6 +228,29 @@ public class Browser extends org.eclipse.set.browser.swt.Browser {
 		webBrowser.setDownloadListener(listener);
 	}
 
+	/**
+	 * Sets the interceptor deciding whether http(s) requests are blocked,
+	 * redirected or answered by a request handler instead of the network.
+	 * The interceptor applies to requests of all frames of the browser.
+	 * 
+	 * @param interceptor
+	 *            the interceptor or null to load all requests normally
+	 */
+	public void setResourceInterceptor(final ResourceInterceptor interceptor) {
+		webBrowser.setResourceInterceptor(interceptor);
+	}
+
+	/**
+	 * Discards binary data which has not been fetched yet
+	 * 
+	 * @param url
+	 *            the URL returned by {@link #registerBinaryData(Supplier)}
+	 * @return whether the data was registered and not yet fetched
+	 */
+	public boolean unregisterBinaryData(final String url) {
+		return webBrowser.unregisterBinaryData(url);
+	}
+
 	/**
 	 * @param listener
 	 *            the new console listener
@@ -62,4 +258,11 @@ public class Browser extends org.eclipse.set.browser.swt.Browser {
 	public void setConsoleListener(final ConsoleListener listener) {
 		webBrowser.setConsoleListener(listener);
 	}
+
+	private void checkScripts(final List<String> scripts) {
+		checkWidget();
+		if (scripts == null || scripts.stream().anyMatch(Objects::isNull)) {
+			SWT.error(SWT.ERROR_NULL_ARGUMENT);
+		}
+	}
 }
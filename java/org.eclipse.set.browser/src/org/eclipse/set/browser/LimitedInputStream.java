@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Stream ending after a number of bytes of the underlying stream
+ */
+final class LimitedInputStream extends FilterInputStream {
+	private long remaining;
+
+	LimitedInputStream(final InputStream in, final long length) {
+		super(in);
+		this.remaining = length;
+	}
+
+	@Override
+	public int available() throws IOException {
+		return (int) Math.min(super.available(), remaining);
+	}
+
+	@Override
+	public void mark(final int readlimit) {
+		// Not supported
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (remaining <= 0) {
+			return -1;
+		}
+		final int read = super.read();
+		if (read >= 0) {
+			remaining--;
+		}
+		return read;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+			throws IOException {
+		if (remaining <= 0) {
+			return -1;
+		}
+		final int read = super.read(b, off, (int) Math.min(len, remaining));
+		if (read > 0) {
+			remaining -= read;
+		}
+		return read;
+	}
+
+	@Override
+	public void reset() throws IOException {
+		throw new IOException("Mark not supported");
+	}
+
+	@Override
+	public long skip(final long n) throws IOException {
+		final long skipped = super.skip(Math.min(n, remaining));
+		remaining -= skipped;
+		return skipped;
+	}
+}
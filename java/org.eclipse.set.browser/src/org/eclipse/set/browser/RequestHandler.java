@@ -8,7 +8,16 @@
  */
 package org.eclipse.set.browser;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.net.http.HttpResponse.BodySubscriber;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
 
 /**
  * Handler to process HTTP requests and responses
@@ -18,6 +27,18 @@ public interface RequestHandler {
 	 * Interface for accessing the incoming HTTP Request
 	 */
 	public interface Request {
+		/**
+		 * Returns the request body (e.g. of POST/PUT requests). The body is
+		 * read lazily: files uploaded by the page are streamed from disk and
+		 * are never fully loaded into memory.
+		 * 
+		 * @return a stream over the request body. The stream is empty if the
+		 *         request has no body
+		 */
+		public default InputStream getBody() {
+			return InputStream.nullInputStream();
+		}
+
 		/**
 		 * @param headerName
 		 *            the name of the header
@@ -25,11 +46,33 @@ public interface RequestHandler {
 		 */
 		public String getHeader(String headerName);
 
+		/**
+		 * Returns all request headers. The headers are retrieved at once, so
+		 * this should be preferred over {@link #getHeader(String)} when
+		 * inspecting multiple headers.
+		 * 
+		 * @return an immutable map of header names to their values. Header
+		 *         names are compared case-insensitively. Empty if the request
+		 *         only provides {@link #getHeader(String)}
+		 */
+		public default Map<String, List<String>> getHeaders() {
+			return Map.of();
+		}
+
 		/**
 		 * @return the HTTP Method (GET/POST/PUT/...) used
 		 */
 		public String getMethod();
 
+		/**
+		 * @return the parameters captured from the path by a
+		 *         {@link RequestRouter} route. Empty if the request was not
+		 *         dispatched by a router
+		 */
+		public default Map<String, String> getPathParameters() {
+			return Map.of();
+		}
+
 		/**
 		 * @return the URL requested
 		 */
@@ -39,6 +82,11 @@ public interface RequestHandler {
 
 	/**
 	 * Response to be provided to the browser
+	 * 
+	 * HTTP Range requests are answered automatically with 206 Partial Content
+	 * for successful responses of known length. If the response data is a
+	 * {@link java.nio.channels.SeekableByteChannel}, content before the
+	 * requested range is skipped without reading it.
 	 */
 	public interface Response {
 		/**
@@ -56,6 +104,67 @@ public interface RequestHandler {
 		public void setMimeType(String mimeType);
 
 		/**
+		 * Provides the response data as a buffer, e.g. a
+		 * {@link java.nio.MappedByteBuffer} of a file. The remaining content
+		 * of the buffer is copied directly into the browser's buffers. The
+		 * buffer itself is not modified.
+		 * 
+		 * @param buffer
+		 *            the data to be returned to the browser
+		 */
+		public default void setResponseData(final ByteBuffer buffer) {
+			final byte[] data = new byte[buffer.remaining()];
+			buffer.get(buffer.position(), data);
+			setResponseData(new ByteArrayInputStream(data));
+		}
+
+		/**
+		 * Provides the response data as a stream of buffers of unknown
+		 * length, e.g. for text/event-stream responses. Buffers are passed to
+		 * the browser as soon as they are published, without blocking any
+		 * thread while waiting for further data. The response completes when
+		 * the publisher completes and fails if it signals an error. The
+		 * subscription is cancelled if the browser aborts the request.
+		 * 
+		 * @param publisher
+		 *            the publisher providing the data to be returned to the
+		 *            browser. Published buffers must not be modified
+		 *            afterwards
+		 */
+		public default void setResponseData(
+				final Flow.Publisher<ByteBuffer> publisher) {
+			// Adapt the buffers to a blocking stream, which requests further
+			// buffers as it is read
+			final BodySubscriber<InputStream> stream = BodySubscribers
+					.ofInputStream();
+			publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+				@Override
+				public void onComplete() {
+					stream.onComplete();
+				}
+
+				@Override
+				public void onError(final Throwable throwable) {
+					stream.onError(throwable);
+				}
+
+				@Override
+				public void onNext(final ByteBuffer item) {
+					stream.onNext(List.of(item));
+				}
+
+				@Override
+				public void onSubscribe(final Flow.Subscription subscription) {
+					stream.onSubscribe(subscription);
+				}
+			});
+			setResponseData(stream.getBody().toCompletableFuture().join());
+		}
+
+		/**
+		 * Provides the response data as a stream of unknown length. The data
+		 * is streamed to the browser until the end of the stream is reached.
+		 * 
 		 * @param stream
 		 *            a stream containing the data to be returned to the browser
 		 *            The stream is automatically closed by the response object
@@ -63,6 +172,58 @@ public interface RequestHandler {
 		 */
 		public void setResponseData(InputStream stream);
 
+		/**
+		 * @param stream
+		 *            a stream containing the data to be returned to the browser
+		 *            The stream is automatically closed by the response object
+		 *            after data has been written to the browser
+		 * @param length
+		 *            the number of bytes to return to the browser or -1, if
+		 *            the length is unknown and the stream should be read until
+		 *            its end
+		 */
+		public default void setResponseData(final InputStream stream,
+				final long length) {
+			setResponseData(length < 0 ? stream
+					: new LimitedInputStream(stream, length));
+		}
+
+		/**
+		 * Provides the response data as a channel. The data is read from the
+		 * channel directly into the browser's buffers without intermediate
+		 * copies.
+		 * 
+		 * If the channel is a {@link java.nio.channels.SeekableByteChannel},
+		 * the length is determined from the channel's size and position.
+		 * Otherwise the channel is read until its end.
+		 * 
+		 * @param channel
+		 *            a channel providing the data to be returned to the
+		 *            browser. The channel is automatically closed by the
+		 *            response object after data has been written to the
+		 *            browser
+		 */
+		public default void setResponseData(
+				final ReadableByteChannel channel) {
+			setResponseData(Channels.newInputStream(channel));
+		}
+
+		/**
+		 * @param channel
+		 *            a channel providing the data to be returned to the
+		 *            browser. The channel is automatically closed by the
+		 *            response object after data has been written to the
+		 *            browser
+		 * @param length
+		 *            the number of bytes to return to the browser or -1, if
+		 *            the length is unknown and the channel should be read
+		 *            until its end
+		 */
+		public default void setResponseData(final ReadableByteChannel channel,
+				final long length) {
+			setResponseData(Channels.newInputStream(channel), length);
+		}
+
 		/**
 		 * @param data
 		 *            the data to be returned to the browser
@@ -78,6 +239,34 @@ public interface RequestHandler {
 	}
 
 	/**
+	 * Provides the validators of the response to a request before the
+	 * response is generated. If the browser's cached copy is still valid, the
+	 * request is answered with 304 Not Modified and
+	 * {@link #onRequest(Request, Response)} is not called. Otherwise the
+	 * validator's ETag/Last-Modified headers are added to the response.
+	 * 
+	 * @param request
+	 *            the incoming request
+	 * @return the validators for the response or null, if the response
+	 *         cannot be validated
+	 * @throws Exception
+	 *             throw any exception to indicate failure (status code 500)
+	 */
+	public default ResponseValidator getValidator(final Request request)
+			throws Exception {
+		return null;
+	}
+
+	/**
+	 * Handles a request. Requests are handled concurrently on the executor
+	 * configured in
+	 * {@link org.eclipse.set.browser.cef.CEFConfiguration#RequestExecutor},
+	 * so implementations must be thread-safe. If handling a request takes
+	 * longer than
+	 * {@link org.eclipse.set.browser.cef.CEFConfiguration#RequestTimeout},
+	 * the request is answered with 504 Gateway Timeout and the handling thread
+	 * is interrupted.
+	 * 
 	 * @param request
 	 *            the incoming request. This object *must not* be preserved
 	 *            outside this function call.
@@ -0,0 +1,362 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Request handler dispatching requests to other handlers by path and method
+ *
+ * Routes are stored in a trie over the path segments, so dispatching only
+ * depends on the length of the requested path and not on the number of
+ * routes. Path patterns consist of segments separated by '/', where each
+ * segment is either
+ * <ul>
+ * <li>a literal, which must match exactly,</li>
+ * <li>a parameter <code>{name}</code>, which matches any single segment,
+ * or</li>
+ * <li>a trailing <code>*</code>, which matches the remaining, possibly empty
+ * path (available as path parameter "*").</li>
+ * </ul>
+ * Literal segments take precedence over parameters, which take precedence
+ * over wildcards. The values of parameters are available via
+ * {@link Request#getPathParameters()}. Requested paths are decoded after
+ * splitting them into segments, so an encoded slash (%2F) does not separate
+ * segments.
+ *
+ * Example:
+ *
+ * <pre>
+ * final RequestRouter router = new RequestRouter();
+ * router.route("GET", "/api/items/{id}", (request, response) -&gt; {
+ * 	final String id = request.getPathParameters().get("id");
+ * 	...
+ * });
+ * router.route(null, "/*", new StaticFileRequestHandler(root));
+ * browser.registerRequestHandler("app.local", router);
+ * </pre>
+ */
+public class RequestRouter implements RequestHandler {
+	/**
+	 * Route matched by a router for a request
+	 */
+	public static final class Match {
+		final Map<String, String> parameters;
+		final Route route;
+		final RequestRouter router;
+
+		Match(final RequestRouter router, final Route route,
+				final Map<String, String> parameters) {
+			this.router = router;
+			this.route = route;
+			this.parameters = parameters;
+		}
+
+		/**
+		 * @return the method and pattern of the route (e.g. "GET
+		 *         /api/items/{id}") or null, if no route matched
+		 */
+		public String getRoute() {
+			return route != null ? route.name : null;
+		}
+	}
+
+	/**
+	 * Request storing the match of the router it is dispatched by. The request
+	 * is then only matched once, although the router matches it to validate
+	 * and to handle it, and the caller may read the route afterwards, e.g.
+	 * for request metrics.
+	 */
+	public interface MatchedRequest extends Request {
+		/**
+		 * @return the match set by {@link #setMatch(Match)}
+		 */
+		public Match getMatch();
+
+		/**
+		 * @param match
+		 *            the match of the router or null, when the request is
+		 *            reused for another request
+		 */
+		public void setMatch(Match match);
+	}
+
+	private static final class Node {
+		final Map<String, Node> children = new ConcurrentHashMap<>();
+		volatile Node parameter;
+		final Map<String, Route> routes = new ConcurrentHashMap<>();
+		volatile Node wildcard;
+	}
+
+	private static final class Route {
+		final RequestHandler handler;
+		final String name;
+		final String[] parameterNames;
+		final RequestRouter router;
+
+		Route(final RequestRouter router, final String name,
+				final RequestHandler handler, final String[] parameterNames) {
+			this.router = router;
+			this.name = name;
+			this.handler = handler;
+			this.parameterNames = parameterNames;
+		}
+	}
+
+	private static final class RoutedRequest implements Request {
+		private final Request request;
+		private final Map<String, String> parameters;
+
+		RoutedRequest(final Request request,
+				final Map<String, String> parameters) {
+			this.request = request;
+			this.parameters = parameters;
+		}
+
+		@Override
+		public InputStream getBody() {
+			return request.getBody();
+		}
+
+		@Override
+		public String getHeader(final String headerName) {
+			return request.getHeader(headerName);
+		}
+
+		@Override
+		public Map<String, List<String>> getHeaders() {
+			return request.getHeaders();
+		}
+
+		@Override
+		public String getMethod() {
+			return request.getMethod();
+		}
+
+		@Override
+		public Map<String, String> getPathParameters() {
+			return parameters;
+		}
+
+		@Override
+		public String getURL() {
+			return request.getURL();
+		}
+	}
+
+	private static final String ANY_METHOD = "*";
+	private static final Pattern EDGE_SEPARATORS = Pattern.compile("^/+|/+$");
+	private static final Pattern SEPARATORS = Pattern.compile("/+");
+	private static final String WILDCARD = "*";
+
+	private static String decode(final String segment)
+			throws URISyntaxException {
+		if (segment.indexOf('%') < 0) {
+			return segment;
+		}
+		// The leading slash keeps a colon from being taken for a scheme
+		return new URI("/" + segment).getPath().substring(1);
+	}
+
+	private static String[] split(final String path) {
+		final String trimmed = EDGE_SEPARATORS.matcher(path).replaceAll("");
+		return trimmed.isEmpty() ? new String[0] : SEPARATORS.split(trimmed);
+	}
+
+	// Stored in a MatchedRequest if no route matches
+	private final Match noMatch = new Match(this, null, Map.of());
+	private final Node root = new Node();
+
+	@Override
+	public ResponseValidator getValidator(final Request request)
+			throws Exception {
+		final Match match = match(request);
+		if (match == null) {
+			return null;
+		}
+		return match.route.handler
+				.getValidator(new RoutedRequest(request, match.parameters));
+	}
+
+	/**
+	 * Returns the route matching a request, e.g. for request metrics
+	 *
+	 * @param request
+	 *            the request
+	 * @return the method and pattern of the matching route (e.g. "GET
+	 *         /api/items/{id}") or null, if no route matches
+	 */
+	public String getRoute(final Request request) {
+		final Match match = match(request);
+		return match != null ? match.getRoute() : null;
+	}
+
+	@Override
+	public void onRequest(final Request request, final Response response)
+			throws Exception {
+		final Match match = match(request);
+		if (match == null) {
+			response.setStatus(404);
+			response.setResponseData("Not found");
+			return;
+		}
+		match.route.handler.onRequest(
+				new RoutedRequest(request, match.parameters), response);
+	}
+
+	/**
+	 * Adds a route
+	 *
+	 * @param method
+	 *            the HTTP method to match or null to match any method
+	 * @param pattern
+	 *            the path pattern
+	 * @param handler
+	 *            the handler for matching requests
+	 * @return this router
+	 * @throws IllegalArgumentException
+	 *             if the pattern is invalid or the route already exists
+	 */
+	public synchronized RequestRouter route(final String method,
+			final String pattern, final RequestHandler handler) {
+		final String[] segments = split(pattern);
+		final List<String> names = new ArrayList<>();
+		Node node = root;
+		for (int i = 0; i < segments.length; i++) {
+			final String segment = segments[i];
+			if (WILDCARD.equals(segment)) {
+				if (i != segments.length - 1) {
+					throw new IllegalArgumentException(
+							"Wildcard must be the last segment: " + pattern);
+				}
+				if (node.wildcard == null) {
+					node.wildcard = new Node();
+				}
+				names.add(WILDCARD);
+				node = node.wildcard;
+			} else if (segment.startsWith("{") && segment.endsWith("}")) {
+				if (node.parameter == null) {
+					node.parameter = new Node();
+				}
+				names.add(segment.substring(1, segment.length() - 1));
+				node = node.parameter;
+			} else {
+				node = node.children.computeIfAbsent(segment, s -> new Node());
+			}
+		}
+
+		final String key = method != null ? method : ANY_METHOD;
+		final String name = key + " /" + String.join("/", segments);
+		if (node.routes.putIfAbsent(key, new Route(this, name, handler,
+				names.toArray(new String[0]))) != null) {
+			throw new IllegalArgumentException(
+					"Route already exists: " + key + " " + pattern);
+		}
+		return this;
+	}
+
+	private Match match(final Request request) {
+		if (!(request instanceof final MatchedRequest matched)) {
+			return find(request);
+		}
+		Match match = matched.getMatch();
+		if (match == null || match.router != this) {
+			final Match found = find(request);
+			match = found != null ? found : noMatch;
+			matched.setMatch(match);
+		}
+		return match != noMatch ? match : null;
+	}
+
+	private Match find(final Request request) {
+		final String[] segments;
+		try {
+			// Split before decoding, so that an encoded slash (%2F) is part
+			// of a segment
+			final String path = new URI(request.getURL()).getRawPath();
+			segments = split(path != null ? path : "");
+			for (int i = 0; i < segments.length; i++) {
+				segments[i] = decode(segments[i]);
+			}
+		} catch (final URISyntaxException e) {
+			return null;
+		}
+
+		// One more value for a wildcard capturing an empty remainder
+		final String[] values = new String[segments.length + 1];
+		return match(root, segments, 0, values, 0, request.getMethod());
+	}
+
+	private static Match match(final Node node, final String[] segments,
+			final int index, final String[] values, final int captured,
+			final String method) {
+		// Prefer literal segments, then parameters, then wildcards, which
+		// may also match an empty remainder (e.g. "/api/*" matches "/api/")
+		if (index == segments.length) {
+			final Match match = toMatch(node, method, values, captured);
+			if (match != null) {
+				return match;
+			}
+		} else {
+			final Node child = node.children.get(segments[index]);
+			if (child != null) {
+				final Match match = match(child, segments, index + 1, values,
+						captured, method);
+				if (match != null) {
+					return match;
+				}
+			}
+			final Node parameter = node.parameter;
+			if (parameter != null) {
+				values[captured] = segments[index];
+				final Match match = match(parameter, segments, index + 1,
+						values, captured + 1, method);
+				if (match != null) {
+					return match;
+				}
+			}
+		}
+		final Node wildcard = node.wildcard;
+		if (wildcard != null) {
+			values[captured] = String.join("/", List.of(segments)
+					.subList(index, segments.length));
+			return toMatch(wildcard, method, values, captured + 1);
+		}
+		return null;
+	}
+
+	private static Match toMatch(final Node node, final String method,
+			final String[] values, final int captured) {
+		Route route = node.routes.get(method);
+		if (route == null) {
+			route = node.routes.get(ANY_METHOD);
+		}
+		if (route == null) {
+			return null;
+		}
+		if (captured == 0) {
+			return new Match(route.router, route, Collections.emptyMap());
+		}
+		final Map<String, String> parameters = new HashMap<>();
+		for (int i = 0; i < captured; i++) {
+			parameters.put(route.parameterNames[i], values[i]);
+		}
+		return new Match(route.router, route,
+				Collections.unmodifiableMap(parameters));
+	}
+}
@@ -0,0 +1,373 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Intercepts requests to arbitrary http(s) URLs
+ *
+ * Requests can be blocked, redirected to another URL or answered by a
+ * {@link RequestHandler} instead of the network (e.g. to serve a library
+ * from a local copy instead of a CDN). Requests not matching any rule are
+ * loaded normally.
+ *
+ * URL patterns have the form <code>scheme://host/path</code>, where
+ * <ul>
+ * <li>scheme is http, https or * for both,</li>
+ * <li>host is a hostname or IP address (IPv6 addresses in brackets),
+ * <code>*.domain</code> for all subdomains of a domain or * for all hosts
+ * and</li>
+ * <li>path is either an exact path or a path prefix ending with
+ * <code>/*</code>.</li>
+ * </ul>
+ * Rules are indexed by host and path prefix, so the cost of a lookup does not
+ * depend on the number of rules. If multiple rules match, exact hosts take
+ * precedence over domains, and longer paths take precedence over shorter
+ * ones. Among rules for the same host and path, the first one added wins.
+ *
+ * Example:
+ *
+ * <pre>
+ * final ResourceInterceptor interceptor = new ResourceInterceptor();
+ * interceptor.block("https://telemetry.example.com/*");
+ * interceptor.replace("https://cdn.example.com/lib/*",
+ * 		new StaticFileRequestHandler(localCopy));
+ * browser.setResourceInterceptor(interceptor);
+ * </pre>
+ */
+public class ResourceInterceptor {
+	/**
+	 * Action to take for a request
+	 */
+	public enum Action {
+		/**
+		 * Load the resource normally
+		 */
+		ALLOW,
+		/**
+		 * Cancel the request
+		 */
+		BLOCK,
+		/**
+		 * Load the resource from another URL
+		 */
+		REDIRECT,
+		/**
+		 * Answer the request with a {@link RequestHandler}
+		 */
+		REPLACE
+	}
+
+	/**
+	 * Decision for a single request
+	 */
+	public static final class Decision {
+		private final String host;
+		private final Rule rule;
+		private final String url;
+		// Index in the URL where the matched path prefix ends
+		private final int matchEnd;
+
+		Decision(final Rule rule, final String url, final String host,
+				final int matchEnd) {
+			this.rule = rule;
+			this.url = url;
+			this.host = host;
+			this.matchEnd = matchEnd;
+		}
+
+		/**
+		 * @return the action to take
+		 */
+		public Action getAction() {
+			return rule.action;
+		}
+
+		/**
+		 * @return the handler answering the request for
+		 *         {@link Action#REPLACE}
+		 */
+		public RequestHandler getHandler() {
+			return rule.handler;
+		}
+
+		/**
+		 * @return the requested host
+		 */
+		public String getHost() {
+			return host;
+		}
+
+		/**
+		 * @return the URL to load instead for {@link Action#REDIRECT}. The
+		 *         part of the URL following a matched path prefix is appended
+		 *         to the target
+		 */
+		public String getRedirectURL() {
+			return rule.target + url.substring(matchEnd);
+		}
+	}
+
+	private static final class HostRules {
+		final Map<String, List<Rule>> paths = new ConcurrentHashMap<>();
+		final Map<String, List<Rule>> prefixes = new ConcurrentHashMap<>();
+	}
+
+	private static final class Rule {
+		final Action action;
+		final RequestHandler handler;
+		final String scheme;
+		final String target;
+
+		Rule(final Action action, final String scheme, final String target,
+				final RequestHandler handler) {
+			this.action = action;
+			this.scheme = scheme;
+			this.target = target;
+			this.handler = handler;
+		}
+
+		boolean matches(final String url, final int schemeEnd) {
+			return scheme == null || scheme.length() == schemeEnd
+					&& url.regionMatches(true, 0, scheme, 0, schemeEnd);
+		}
+	}
+
+	private static final String ANY = "*";
+	private static final String DOMAIN_PREFIX = "*.";
+	private static final String SCHEME_SEPARATOR = "://";
+
+	private static int indexOfAny(final String value, final String chars,
+			final int from) {
+		for (int i = from; i < value.length(); i++) {
+			if (chars.indexOf(value.charAt(i)) >= 0) {
+				return i;
+			}
+		}
+		return value.length();
+	}
+
+	private static Decision match(final HostRules rules, final String url,
+			final int schemeEnd, final int pathStart, final int pathEnd,
+			final String host) {
+		if (rules == null) {
+			return null;
+		}
+		final String path = pathStart == pathEnd ? "/"
+				: url.substring(pathStart, pathEnd);
+		final Rule exact = first(rules.paths.get(path), url, schemeEnd);
+		if (exact != null) {
+			return new Decision(exact, url, host, pathEnd);
+		}
+		// Try path prefixes from the longest to the shortest
+		for (int end = path.lastIndexOf('/'); end >= 0; end = path
+				.lastIndexOf('/', end - 1)) {
+			final Rule rule = first(rules.prefixes.get(path.substring(0,
+					end + 1)), url, schemeEnd);
+			if (rule != null) {
+				return new Decision(rule, url, host,
+						Math.min(pathStart + end + 1, pathEnd));
+			}
+			if (end == 0) {
+				break;
+			}
+		}
+		return null;
+	}
+
+	private static Rule first(final List<Rule> rules, final String url,
+			final int schemeEnd) {
+		if (rules != null) {
+			for (final Rule rule : rules) {
+				if (rule.matches(url, schemeEnd)) {
+					return rule;
+				}
+			}
+		}
+		return null;
+	}
+
+	private volatile HostRules anyHost;
+	private final Map<String, HostRules> domains = new ConcurrentHashMap<>();
+	private final Map<String, HostRules> hosts = new ConcurrentHashMap<>();
+
+	/**
+	 * Loads matching requests normally, e.g. to exempt them from a broader
+	 * rule
+	 *
+	 * @param pattern
+	 *            the URL pattern
+	 * @return this interceptor
+	 */
+	public ResourceInterceptor allow(final String pattern) {
+		return add(pattern, new Rule(Action.ALLOW, null, null, null));
+	}
+
+	/**
+	 * Cancels matching requests
+	 *
+	 * @param pattern
+	 *            the URL pattern
+	 * @return this interceptor
+	 */
+	public ResourceInterceptor block(final String pattern) {
+		return add(pattern, new Rule(Action.BLOCK, null, null, null));
+	}
+
+	/**
+	 * Determines the action for a request
+	 *
+	 * @param url
+	 *            the requested URL
+	 * @return the decision or null, if no rule matches and the request should
+	 *         be loaded normally
+	 */
+	public Decision match(final String url) {
+		final int schemeEnd = url.indexOf(SCHEME_SEPARATOR);
+		if (schemeEnd < 0) {
+			return null;
+		}
+		final int authorityStart = schemeEnd + SCHEME_SEPARATOR.length();
+		final int pathStart = indexOfAny(url, "/?#", authorityStart);
+		final int pathEnd = indexOfAny(url, "?#", pathStart);
+
+		// Strip user info and port. IPv6 addresses are kept in brackets, as
+		// they contain colons themselves
+		int hostStart = url.lastIndexOf('@', pathStart - 1) + 1;
+		hostStart = Math.max(hostStart, authorityStart);
+		final boolean ipv6 = hostStart < pathStart
+				&& url.charAt(hostStart) == '[';
+		int hostEnd = ipv6 ? url.indexOf(']', hostStart) + 1
+				: url.indexOf(':', hostStart);
+		if (hostEnd <= 0 || hostEnd > pathStart) {
+			hostEnd = pathStart;
+		}
+		final String host = url.substring(hostStart, hostEnd)
+				.toLowerCase(Locale.ROOT);
+
+		Decision decision = match(hosts.get(host), url, schemeEnd, pathStart,
+				pathEnd, host);
+		// Try domains from the most specific to the least specific
+		for (int dot = ipv6 ? -1 : host.indexOf('.'); decision == null
+				&& dot >= 0; dot = host.indexOf('.', dot + 1)) {
+			decision = match(domains.get(host.substring(dot + 1)), url,
+					schemeEnd, pathStart, pathEnd, host);
+		}
+		if (decision == null) {
+			decision = match(anyHost, url, schemeEnd, pathStart, pathEnd,
+					host);
+		}
+		return decision;
+	}
+
+	/**
+	 * Loads matching requests from another URL
+	 *
+	 * @param pattern
+	 *            the URL pattern
+	 * @param target
+	 *            the URL to load instead. For path prefix patterns, the rest
+	 *            of the requested URL following the prefix is appended
+	 * @return this interceptor
+	 * @throws IllegalArgumentException
+	 *             if the target matches the pattern itself, which would
+	 *             redirect requests endlessly
+	 */
+	public ResourceInterceptor redirect(final String pattern,
+			final String target) {
+		final Rule rule = new Rule(Action.REDIRECT, null, target, null);
+		if (new ResourceInterceptor().add(pattern, rule)
+				.match(target) != null) {
+			throw new IllegalArgumentException(
+					"Redirect target matches the pattern: " + pattern + " -> "
+							+ target);
+		}
+		return add(pattern, rule);
+	}
+
+	/**
+	 * Answers matching requests with a request handler instead of loading
+	 * them from the network
+	 *
+	 * @param pattern
+	 *            the URL pattern
+	 * @param handler
+	 *            the request handler
+	 * @return this interceptor
+	 */
+	public ResourceInterceptor replace(final String pattern,
+			final RequestHandler handler) {
+		return add(pattern, new Rule(Action.REPLACE, null, null, handler));
+	}
+
+	private synchronized ResourceInterceptor add(final String pattern,
+			final Rule template) {
+		final int schemeEnd = pattern.indexOf(SCHEME_SEPARATOR);
+		if (schemeEnd < 0) {
+			throw new IllegalArgumentException(
+					"Missing scheme in pattern: " + pattern);
+		}
+		final String scheme = pattern.substring(0, schemeEnd)
+				.toLowerCase(Locale.ROOT);
+		if (!scheme.equals(ANY) && !scheme.equals("http")
+				&& !scheme.equals("https")) {
+			throw new IllegalArgumentException(
+					"Unsupported scheme in pattern: " + pattern);
+		}
+		final int hostStart = schemeEnd + SCHEME_SEPARATOR.length();
+		int pathStart = pattern.indexOf('/', hostStart);
+		if (pathStart < 0) {
+			pathStart = pattern.length();
+		}
+		final String host = pattern.substring(hostStart, pathStart)
+				.toLowerCase(Locale.ROOT);
+		String path = pathStart < pattern.length()
+				? pattern.substring(pathStart)
+				: "/";
+
+		final boolean prefix = path.endsWith("/*");
+		if (prefix) {
+			path = path.substring(0, path.length() - 1);
+		}
+		if (path.indexOf('*') >= 0 || host.lastIndexOf('*') > 0) {
+			throw new IllegalArgumentException(
+					"Unsupported wildcard in pattern: " + pattern);
+		}
+
+		final HostRules rules;
+		if (host.equals(ANY)) {
+			if (anyHost == null) {
+				anyHost = new HostRules();
+			}
+			rules = anyHost;
+		} else if (host.startsWith(DOMAIN_PREFIX)) {
+			rules = domains.computeIfAbsent(
+					host.substring(DOMAIN_PREFIX.length()),
+					h -> new HostRules());
+		} else if (host.indexOf('*') < 0) {
+			rules = hosts.computeIfAbsent(host, h -> new HostRules());
+		} else {
+			throw new IllegalArgumentException(
+					"Unsupported wildcard in pattern: " + pattern);
+		}
+
+		final Rule rule = new Rule(template.action,
+				scheme.equals(ANY) ? null : scheme, template.target,
+				template.handler);
+		(prefix ? rules.prefixes : rules.paths)
+				.computeIfAbsent(path, p -> new CopyOnWriteArrayList<>())
+				.add(rule);
+		return this;
+	}
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+
+import org.eclipse.set.browser.RequestHandler.Request;
+import org.eclipse.set.browser.RequestHandler.Response;
+
+/**
+ * Validators (ETag and/or Last-Modified) of a response
+ *
+ * If a {@link RequestHandler} provides a validator via
+ * {@link RequestHandler#getValidator(Request)}, conditional requests
+ * (If-None-Match/If-Modified-Since) are answered with 304 Not Modified
+ * without calling {@link RequestHandler#onRequest(Request, Response)}.
+ */
+public final class ResponseValidator {
+	private static final String ETAG = "ETag";
+	private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+	private static final String IF_NONE_MATCH = "If-None-Match";
+	private static final String LAST_MODIFIED = "Last-Modified";
+
+	private static String quote(final String etag) {
+		if (etag.endsWith("\"")
+				&& (etag.startsWith("\"") || etag.startsWith("W/\""))) {
+			return etag;
+		}
+		return "\"" + etag + "\"";
+	}
+
+	private static String stripWeak(final String etag) {
+		return etag.startsWith("W/") ? etag.substring(2) : etag;
+	}
+
+	private final String etag;
+
+	private final Instant lastModified;
+
+	/**
+	 * @param etag
+	 *            the entity tag of the response or null. Unquoted values are
+	 *            quoted automatically
+	 * @param lastModified
+	 *            the last modification time of the response or null
+	 */
+	public ResponseValidator(final String etag, final Instant lastModified) {
+		this.etag = etag != null ? quote(etag) : null;
+		this.lastModified = lastModified != null
+				? lastModified.truncatedTo(ChronoUnit.SECONDS)
+				: null;
+	}
+
+	/**
+	 * Sets the ETag and Last-Modified headers on a response
+	 *
+	 * @param response
+	 *            the response
+	 */
+	public void apply(final Response response) {
+		if (etag != null) {
+			response.setHeader(ETAG, etag);
+		}
+		if (lastModified != null) {
+			response.setHeader(LAST_MODIFIED,
+					DateTimeFormatter.RFC_1123_DATE_TIME
+							.format(lastModified.atOffset(ZoneOffset.UTC)));
+		}
+	}
+
+	/**
+	 * @return the quoted entity tag or null
+	 */
+	public String getETag() {
+		return etag;
+	}
+
+	/**
+	 * @return the last modification time (truncated to seconds) or null
+	 */
+	public Instant getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Evaluates the conditional headers of a request
+	 *
+	 * If-None-Match takes precedence over If-Modified-Since. Entity tags are
+	 * compared weakly.
+	 *
+	 * @param request
+	 *            the request
+	 * @return whether the client's copy is still valid (304 Not Modified)
+	 */
+	public boolean isNotModified(final Request request) {
+		final String method = request.getMethod();
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return false;
+		}
+
+		final String ifNoneMatch = request.getHeader(IF_NONE_MATCH);
+		if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+			if (etag == null) {
+				return false;
+			}
+			final String tag = stripWeak(etag);
+			for (final String candidate : ifNoneMatch.split(",")) {
+				final String trimmed = candidate.trim();
+				if (trimmed.equals("*") || stripWeak(trimmed).equals(tag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		final String ifModifiedSince = request.getHeader(IF_MODIFIED_SINCE);
+		if (lastModified == null || ifModifiedSince == null
+				|| ifModifiedSince.isBlank()) {
+			return false;
+		}
+		try {
+			final Instant since = DateTimeFormatter.RFC_1123_DATE_TIME
+					.parse(ifModifiedSince.trim(), Instant::from);
+			return !lastModified.isAfter(since);
+		} catch (final DateTimeParseException e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Request handler serving the files of a directory tree
+ *
+ * Files are memory-mapped, so their content is copied directly from the page
+ * cache into the browser. If the browser accepts it, a precompressed sibling
+ * (file.br or file.gz) is served instead of the file itself. Requests for
+ * paths ending with a slash are answered with the index.html of that
+ * directory. Paths outside of the root directory, including symbolic links
+ * leading out of it, are rejected.
+ */
+public class StaticFileRequestHandler implements RequestHandler {
+	private static final class Resource {
+		final BasicFileAttributes attributes;
+		final String encoding;
+		final Path file;
+		final String mimeType;
+
+		Resource(final Path file, final BasicFileAttributes attributes,
+				final String encoding, final String mimeType) {
+			this.file = file;
+			this.attributes = attributes;
+			this.encoding = encoding;
+			this.mimeType = mimeType;
+		}
+	}
+
+	// Content encodings and file suffixes of precompressed files in order of
+	// preference
+	private static final String[][] COMPRESSED_VARIANTS = { { "br", ".br" },
+			{ "gzip", ".gz" } };
+
+	private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+	private static final String INDEX_FILE = "index.html";
+
+	private static final Pattern REJECTED = Pattern.compile("q=0(\\.0*)?");
+
+	// Files smaller than this are read rather than mapped
+	private static final int MAP_THRESHOLD = 64 * 1024;
+
+	private static final Map<String, String> MIME_TYPES = Map.ofEntries(
+			Map.entry("css", "text/css"), //
+			Map.entry("csv", "text/csv"), //
+			Map.entry("gif", "image/gif"), //
+			Map.entry("htm", "text/html"), //
+			Map.entry("html", "text/html"), //
+			Map.entry("ico", "image/x-icon"), //
+			Map.entry("jpeg", "image/jpeg"), //
+			Map.entry("jpg", "image/jpeg"), //
+			Map.entry("js", "text/javascript"), //
+			Map.entry("json", "application/json"), //
+			Map.entry("map", "application/json"), //
+			Map.entry("mjs", "text/javascript"), //
+			Map.entry("mp3", "audio/mpeg"), //
+			Map.entry("mp4", "video/mp4"), //
+			Map.entry("otf", "font/otf"), //
+			Map.entry("pdf", "application/pdf"), //
+			Map.entry("png", "image/png"), //
+			Map.entry("svg", "image/svg+xml"), //
+			Map.entry("ttf", "font/ttf"), //
+			Map.entry("txt", "text/plain"), //
+			Map.entry("wasm", "application/wasm"), //
+			Map.entry("wav", "audio/wav"), //
+			Map.entry("webm", "video/webm"), //
+			Map.entry("webp", "image/webp"), //
+			Map.entry("woff", "font/woff"), //
+			Map.entry("woff2", "font/woff2"), //
+			Map.entry("xml", "application/xml"));
+
+	/**
+	 * @param fileName
+	 *            the file name
+	 * @return the mime type for the file's extension
+	 */
+	public static String getMimeType(final String fileName) {
+		final int extension = fileName.lastIndexOf('.');
+		if (extension < 0) {
+			return DEFAULT_MIME_TYPE;
+		}
+		return MIME_TYPES.getOrDefault(
+				fileName.substring(extension + 1).toLowerCase(Locale.ROOT),
+				DEFAULT_MIME_TYPE);
+	}
+
+	/**
+	 * @param request
+	 *            the request
+	 * @param encoding
+	 *            the content encoding
+	 * @return whether the request's Accept-Encoding header accepts the
+	 *         encoding
+	 */
+	static boolean accepts(final Request request, final String encoding) {
+		final String header = request.getHeader("Accept-Encoding");
+		if (header == null) {
+			return false;
+		}
+		for (final String accepted : header.split(",")) {
+			final String[] parts = accepted.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase(encoding)) {
+				// Encodings may be explicitly rejected via q=0
+				return parts.length < 2 || !REJECTED.matcher(parts[1].trim())
+						.matches();
+			}
+		}
+		return false;
+	}
+
+	private final Path root;
+	// Real path of the root directory, determined on the first request
+	private volatile Path realRoot;
+
+	/**
+	 * @param root
+	 *            the directory to serve
+	 */
+	public StaticFileRequestHandler(final Path root) {
+		this.root = root.toAbsolutePath().normalize();
+	}
+
+	@Override
+	public ResponseValidator getValidator(final Request request)
+			throws IOException {
+		final Resource resource = resolve(request);
+		if (resource == null) {
+			return null;
+		}
+		final BasicFileAttributes attributes = resource.attributes;
+		final String etag = Long.toHexString(attributes.size()) + "-"
+				+ Long.toHexString(attributes.lastModifiedTime().toMillis())
+				+ (resource.encoding != null ? "-" + resource.encoding : "");
+		return new ResponseValidator(etag,
+				attributes.lastModifiedTime().toInstant());
+	}
+
+	@Override
+	public void onRequest(final Request request, final Response response)
+			throws IOException {
+		response.setHeader("Vary", "Accept-Encoding");
+		final Resource resource = resolve(request);
+		if (resource == null) {
+			response.setStatus(404);
+			response.setResponseData("Not found");
+			return;
+		}
+
+		response.setMimeType(resource.mimeType);
+		if (resource.encoding != null) {
+			response.setHeader("Content-Encoding", resource.encoding);
+		}
+		try (FileChannel channel = FileChannel.open(resource.file,
+				StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size < MAP_THRESHOLD) {
+				final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+				while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+					// read fully
+				}
+				response.setResponseData(buffer.flip());
+			} else {
+				response.setResponseData(
+						channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+			}
+		}
+	}
+
+	/**
+	 * Resolves the file to serve for a request
+	 *
+	 * @param request
+	 *            the request
+	 * @return the file or null, if the request does not refer to a file in
+	 *         the root directory
+	 */
+	private Resource resolve(final Request request) {
+		final String method = request.getMethod();
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return null;
+		}
+
+		final Path file;
+		try {
+			String path = new URI(request.getURL()).getPath();
+			if (path == null) {
+				return null;
+			}
+			if (path.isEmpty() || path.endsWith("/")) {
+				path += INDEX_FILE;
+			}
+			// Resolve relative to the root directory
+			while (path.startsWith("/")) {
+				path = path.substring(1);
+			}
+			file = root.resolve(path).normalize();
+		} catch (final URISyntaxException | InvalidPathException e) {
+			return null;
+		}
+		// Prevent path traversal out of the root directory
+		if (!file.startsWith(root)) {
+			return null;
+		}
+
+		final String fileName = file.getFileName().toString();
+		final String mimeType = getMimeType(fileName);
+		for (final String[] variant : COMPRESSED_VARIANTS) {
+			if (accepts(request, variant[0])) {
+				final Resource compressed = toResource(
+						file.resolveSibling(fileName + variant[1]),
+						variant[0], mimeType);
+				if (compressed != null) {
+					return compressed;
+				}
+			}
+		}
+		return toResource(file, null, mimeType);
+	}
+
+	/**
+	 * @param file
+	 *            the file to serve
+	 * @param encoding
+	 *            the content encoding of the file or null
+	 * @param mimeType
+	 *            the mime type
+	 * @return the resource or null, if the file is not a regular file within
+	 *         the root directory. Symbolic links are followed, so that they
+	 *         cannot lead out of the root directory.
+	 */
+	private Resource toResource(final Path file, final String encoding,
+			final String mimeType) {
+		try {
+			if (realRoot == null) {
+				realRoot = root.toRealPath();
+			}
+			final Path realFile = file.toRealPath();
+			if (!realFile.startsWith(realRoot)) {
+				return null;
+			}
+			final BasicFileAttributes attributes = Files
+					.readAttributes(realFile, BasicFileAttributes.class);
+			if (!attributes.isRegularFile()) {
+				return null;
+			}
+			return new Resource(realFile, attributes, encoding, mimeType);
+		} catch (final IOException e) {
+			// The file or the root directory does not exist
+			return null;
+		}
+	}
+}
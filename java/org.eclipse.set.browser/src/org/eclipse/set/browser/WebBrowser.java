@@ -8,9 +8,14 @@
  */
 package org.eclipse.set.browser;
 
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * WebBrowser implementation for SET Browser extensions
@@ -34,10 +39,44 @@ public abstract class WebBrowser
 			// Do nothing
 		}
 	};
-	protected HashMap<String, RequestHandler> requestHandlers = new HashMap<>();
+	protected Map<String, RequestHandler> requestHandlers = new ConcurrentHashMap<>();
+
+	private BinaryDataRequestHandler binaryData;
 
 	DownloadListener downloadListener = defaultDownloadListener;
 
+	/**
+	 * Evaluates a script without blocking the caller
+	 * 
+	 * @param script
+	 *            the script with javascript commands
+	 * @return a future completed on the UI thread with the return value of
+	 *         the script
+	 */
+	public abstract CompletableFuture<Object> evaluateAsync(String script);
+
+	/**
+	 * Evaluates multiple scripts in a single round trip to the renderer
+	 * 
+	 * @param scripts
+	 *            the scripts with javascript commands
+	 * @return the return values of the scripts or an SWTException for each
+	 *         script which failed
+	 */
+	public abstract Object[] evaluateBatch(List<String> scripts);
+
+	/**
+	 * Evaluates multiple scripts in a single round trip to the renderer
+	 * without blocking the caller
+	 * 
+	 * @param scripts
+	 *            the scripts with javascript commands
+	 * @return a future completed on the UI thread with the return values of
+	 *         the scripts or an SWTException for each script which failed
+	 */
+	public abstract CompletableFuture<Object[]> evaluateBatchAsync(
+			List<String> scripts);
+
 	/**
 	 * @return the download listener
 	 */
@@ -45,6 +84,34 @@ public abstract class WebBrowser
 		return downloadListener;
 	}
 
+	/**
+	 * @return the resource interceptor or null, if none is set
+	 */
+	public ResourceInterceptor getResourceInterceptor() {
+		return resourceInterceptor;
+	}
+
+	/**
+	 * Provides binary data to JavaScript. The data is served once under the
+	 * returned URL and can be read via
+	 * <code>fetch(url).then(r =&gt; r.arrayBuffer())</code>. It is not
+	 * converted or copied into a string on the way.
+	 * 
+	 * @param supplier
+	 *            the supplier of the data. It is called when the URL is
+	 *            fetched. The returned buffer is not modified
+	 * @return the one-shot URL to fetch the data from
+	 */
+	public synchronized String registerBinaryData(
+			final Supplier<ByteBuffer> supplier) {
+		if (binaryData == null) {
+			binaryData = new BinaryDataRequestHandler();
+			registerRequestHandler(BinaryDataRequestHandler.HOSTNAME,
+					binaryData);
+		}
+		return binaryData.register(supplier);
+	}
+
 	/**
 	 * Registers a request handler to handle https://hostname requests.
 	 * 
@@ -64,6 +131,28 @@ public abstract class WebBrowser
 		downloadListener = listener;
 	}
 
+	protected volatile ResourceInterceptor resourceInterceptor;
+
+	/**
+	 * Discards binary data which has not been fetched yet
+	 * 
+	 * @param url
+	 *            the URL returned by {@link #registerBinaryData(Supplier)}
+	 * @return whether the data was registered and not yet fetched
+	 */
+	public synchronized boolean unregisterBinaryData(final String url) {
+		return binaryData != null && binaryData.unregister(url);
+	}
+
+	/**
+	 * @param interceptor
+	 *            the interceptor applied to http(s) requests or null to load
+	 *            all requests normally
+	 */
+	public void setResourceInterceptor(final ResourceInterceptor interceptor) {
+		resourceInterceptor = interceptor;
+	}
+
 	protected ConsoleListener consoleListener;
 
 	/**
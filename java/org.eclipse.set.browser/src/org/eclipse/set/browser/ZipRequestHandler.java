@@ -0,0 +1,530 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * Request handler serving the entries of a ZIP or JAR archive
+ *
+ * The archive is opened once and its central directory is indexed, so a
+ * request is answered with a single lookup instead of scanning the archive.
+ * The archive may be preceded by other data, e.g. a launcher script.
+ * Stored entries are read directly from the archive file. Deflated entries
+ * are passed through unchanged with Content-Encoding: deflate if the browser
+ * accepts it (Chromium accepts raw deflate data as well as the zlib format)
+ * and inflated while reading otherwise. Requests for paths ending with a
+ * slash are answered with the index.html of that directory.
+ *
+ * Interrupting a thread reading the archive, e.g. on a request timeout,
+ * closes the archive file. It is then opened again for the next read.
+ */
+public class ZipRequestHandler implements RequestHandler, Closeable {
+	private static final class Entry {
+		final long compressedSize;
+		final int crc;
+		// Offset of the entry's data, resolved from the local header on first
+		// use
+		volatile long dataOffset = -1;
+		final Instant lastModified;
+		final long localHeaderOffset;
+		final int method;
+		final String mimeType;
+		final long size;
+
+		Entry(final String mimeType, final int method, final int crc,
+				final long compressedSize, final long size,
+				final long localHeaderOffset, final Instant lastModified) {
+			this.mimeType = mimeType;
+			this.method = method;
+			this.crc = crc;
+			this.compressedSize = compressedSize;
+			this.size = size;
+			this.localHeaderOffset = localHeaderOffset;
+			this.lastModified = lastModified;
+		}
+	}
+
+	/**
+	 * Read-only view of a region of the archive
+	 *
+	 * Uses positional reads, so views of the same archive can be read
+	 * concurrently. Closing the view does not close the archive.
+	 */
+	private final class ArchiveSlice implements SeekableByteChannel {
+		private boolean open = true;
+		private long position;
+		private final long size;
+		private final long start;
+
+		ArchiveSlice(final long start, final long size) {
+			this.start = start;
+			this.size = size;
+		}
+
+		@Override
+		public void close() {
+			open = false;
+		}
+
+		@Override
+		public boolean isOpen() {
+			return open;
+		}
+
+		@Override
+		public long position() throws IOException {
+			ensureOpen();
+			return position;
+		}
+
+		@Override
+		public SeekableByteChannel position(final long newPosition)
+				throws IOException {
+			ensureOpen();
+			if (newPosition < 0) {
+				throw new IllegalArgumentException("Negative position");
+			}
+			position = newPosition;
+			return this;
+		}
+
+		@Override
+		public int read(final ByteBuffer dst) throws IOException {
+			ensureOpen();
+			final long remaining = size - position;
+			if (remaining <= 0) {
+				return -1;
+			}
+			if (dst.remaining() <= remaining) {
+				return advance(ZipRequestHandler.this.read(dst,
+						start + position));
+			}
+			final ByteBuffer limited = dst.slice(dst.position(),
+					(int) remaining);
+			final int read = advance(ZipRequestHandler.this.read(limited,
+					start + position));
+			if (read > 0) {
+				dst.position(dst.position() + read);
+			}
+			return read;
+		}
+
+		@Override
+		public long size() throws IOException {
+			ensureOpen();
+			return size;
+		}
+
+		@Override
+		public SeekableByteChannel truncate(final long newSize) {
+			throw new NonWritableChannelException();
+		}
+
+		@Override
+		public int write(final ByteBuffer src) {
+			throw new NonWritableChannelException();
+		}
+
+		private int advance(final int read) {
+			if (read > 0) {
+				position += read;
+			}
+			return read;
+		}
+
+		private void ensureOpen() throws ClosedChannelException {
+			if (!open) {
+				throw new ClosedChannelException();
+			}
+		}
+	}
+
+	private static final int CENTRAL_HEADER = 0x02014b50;
+	private static final int CENTRAL_HEADER_SIZE = 46;
+	private static final String DEFLATE = "deflate";
+	private static final int END_HEADER = 0x06054b50;
+	private static final int END_HEADER_SIZE = 22;
+	private static final int FLAG_ENCRYPTED = 1;
+	private static final String INDEX_FILE = "index.html";
+	private static final int LOCAL_HEADER = 0x04034b50;
+	private static final int LOCAL_HEADER_SIZE = 30;
+	private static final int MAX_COMMENT_SIZE = 0xffff;
+	private static final int ZIP64_END_HEADER = 0x06064b50;
+	private static final int ZIP64_END_HEADER_SIZE = 56;
+	private static final int ZIP64_EXTRA = 0x0001;
+	private static final int ZIP64_LOCATOR = 0x07064b50;
+	private static final int ZIP64_LOCATOR_SIZE = 20;
+	private static final long ZIP64_MAGIC = 0xffffffffL;
+
+	private static Instant fromDosTime(final int time, final int date) {
+		try {
+			return LocalDateTime
+					.of(((date >> 9) & 0x7f) + 1980, (date >> 5) & 0x0f,
+							date & 0x1f, (time >> 11) & 0x1f,
+							(time >> 5) & 0x3f, (time & 0x1f) * 2)
+					.atZone(ZoneId.systemDefault()).toInstant();
+		} catch (final DateTimeException e) {
+			return null;
+		}
+	}
+
+	private static InputStream inflate(final ArchiveSlice data) {
+		final Inflater inflater = new Inflater(true);
+		return new InflaterInputStream(Channels.newInputStream(data),
+				inflater) {
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				} finally {
+					// Release the native state of the inflater right away
+					inflater.end();
+				}
+			}
+		};
+	}
+
+	private static boolean isPassedThrough(final Request request,
+			final Entry entry) {
+		return entry.method == ZipEntry.DEFLATED
+				&& StaticFileRequestHandler.accepts(request, DEFLATE);
+	}
+
+	private final Path archive;
+	private FileChannel channel;
+	private boolean closed;
+	private final Map<String, Entry> entries;
+	private final String prefix;
+
+	/**
+	 * @param archive
+	 *            the archive to serve
+	 * @throws IOException
+	 *             if the archive cannot be read
+	 */
+	public ZipRequestHandler(final Path archive) throws IOException {
+		this(archive, "");
+	}
+
+	/**
+	 * @param archive
+	 *            the archive to serve
+	 * @param directory
+	 *            the directory within the archive to serve (e.g. "web/") or
+	 *            an empty string to serve the whole archive
+	 * @throws IOException
+	 *             if the archive cannot be read
+	 */
+	public ZipRequestHandler(final Path archive, final String directory)
+			throws IOException {
+		String normalized = directory;
+		while (normalized.startsWith("/")) {
+			normalized = normalized.substring(1);
+		}
+		if (!normalized.isEmpty() && !normalized.endsWith("/")) {
+			normalized += "/";
+		}
+		this.prefix = normalized;
+		this.archive = archive;
+		this.channel = FileChannel.open(archive, StandardOpenOption.READ);
+		try {
+			this.entries = readCentralDirectory();
+		} catch (final IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		closed = true;
+		channel.close();
+	}
+
+	@Override
+	public ResponseValidator getValidator(final Request request) {
+		final Entry entry = resolve(request);
+		if (entry == null) {
+			return null;
+		}
+		final String etag = Integer.toHexString(entry.crc) + "-"
+				+ Long.toHexString(entry.size)
+				+ (isPassedThrough(request, entry) ? "-" + DEFLATE : "");
+		return new ResponseValidator(etag, entry.lastModified);
+	}
+
+	@Override
+	public void onRequest(final Request request, final Response response)
+			throws IOException {
+		response.setHeader("Vary", "Accept-Encoding");
+		final Entry entry = resolve(request);
+		if (entry == null) {
+			response.setStatus(404);
+			response.setResponseData("Not found");
+			return;
+		}
+
+		response.setMimeType(entry.mimeType);
+		final ArchiveSlice data = new ArchiveSlice(getDataOffset(entry),
+				entry.compressedSize);
+		if (entry.method == ZipEntry.STORED) {
+			response.setResponseData(data, entry.size);
+		} else if (isPassedThrough(request, entry)) {
+			response.setHeader("Content-Encoding", DEFLATE);
+			response.setResponseData(data, entry.compressedSize);
+		} else {
+			response.setResponseData(inflate(data), entry.size);
+		}
+	}
+
+	/**
+	 * @return the open archive file, which is opened again if an interrupt
+	 *         closed it
+	 */
+	private synchronized FileChannel getChannel() throws IOException {
+		if (closed) {
+			throw new ClosedChannelException();
+		}
+		if (!channel.isOpen()) {
+			channel = FileChannel.open(archive, StandardOpenOption.READ);
+		}
+		return channel;
+	}
+
+	private long getDataOffset(final Entry entry) throws IOException {
+		long offset = entry.dataOffset;
+		if (offset < 0) {
+			final ByteBuffer header = read(entry.localHeaderOffset,
+					LOCAL_HEADER_SIZE);
+			if (header.getInt(0) != LOCAL_HEADER) {
+				throw new ZipException("Invalid local file header");
+			}
+			offset = entry.localHeaderOffset + LOCAL_HEADER_SIZE
+					+ Short.toUnsignedInt(header.getShort(26))
+					+ Short.toUnsignedInt(header.getShort(28));
+			entry.dataOffset = offset;
+		}
+		return offset;
+	}
+
+	private int read(final ByteBuffer dst, final long position)
+			throws IOException {
+		while (true) {
+			try {
+				return getChannel().read(dst, position);
+			} catch (final ClosedByInterruptException e) {
+				// This thread was interrupted
+				throw e;
+			} catch (final ClosedChannelException e) {
+				// Another thread was interrupted while reading, so retry
+				// with a new channel unless the handler was closed
+			}
+		}
+	}
+
+	private ByteBuffer read(final long position, final int length)
+			throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(length)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (read(buffer, position + buffer.position()) < 0) {
+				throw new ZipException("Unexpected end of archive");
+			}
+		}
+		return buffer.flip();
+	}
+
+	private Map<String, Entry> readCentralDirectory() throws IOException {
+		// Locate the end of central directory record, which is followed by
+		// a comment of variable length
+		final long fileSize = getChannel().size();
+		final int tailSize = (int) Math.min(fileSize,
+				END_HEADER_SIZE + MAX_COMMENT_SIZE);
+		final ByteBuffer tail = read(fileSize - tailSize, tailSize);
+		int end = tailSize - END_HEADER_SIZE;
+		while (end >= 0 && tail.getInt(end) != END_HEADER) {
+			end--;
+		}
+		if (end < 0) {
+			throw new ZipException("End of central directory not found");
+		}
+		long count = Short.toUnsignedInt(tail.getShort(end + 10));
+		long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+		long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+		// The central directory ends where the (zip64) end record starts
+		long directoryEnd = fileSize - tailSize + end;
+
+		final long locatorPosition = directoryEnd - ZIP64_LOCATOR_SIZE;
+		if ((count == 0xffff || directorySize == ZIP64_MAGIC
+				|| directoryOffset == ZIP64_MAGIC)
+				&& locatorPosition >= ZIP64_END_HEADER_SIZE) {
+			final ByteBuffer locator = read(locatorPosition,
+					ZIP64_LOCATOR_SIZE);
+			if (locator.getInt(0) == ZIP64_LOCATOR) {
+				// The zip64 end record precedes the locator, unless it has
+				// an extensible data sector
+				long zip64EndPosition = locatorPosition
+						- ZIP64_END_HEADER_SIZE;
+				ByteBuffer zip64End = read(zip64EndPosition,
+						ZIP64_END_HEADER_SIZE);
+				if (zip64End.getInt(0) != ZIP64_END_HEADER) {
+					zip64EndPosition = locator.getLong(8);
+					zip64End = read(zip64EndPosition, ZIP64_END_HEADER_SIZE);
+				}
+				if (zip64End.getInt(0) != ZIP64_END_HEADER) {
+					throw new ZipException(
+							"Invalid zip64 end of central directory");
+				}
+				count = zip64End.getLong(32);
+				directorySize = zip64End.getLong(40);
+				directoryOffset = zip64End.getLong(48);
+				directoryEnd = zip64EndPosition;
+			}
+		}
+		if (directorySize > Integer.MAX_VALUE) {
+			throw new ZipException("Central directory too large");
+		}
+		// Offsets are relative to the start of the archive, which may be
+		// preceded by other data, e.g. a launcher script
+		final long start = directoryEnd - directorySize - directoryOffset;
+		if (start < 0) {
+			throw new ZipException("Invalid central directory offset");
+		}
+
+		final ByteBuffer directory = read(start + directoryOffset,
+				(int) directorySize);
+		final Map<String, Entry> result = new HashMap<>(
+				(int) Math.min(count * 4 / 3 + 1, Integer.MAX_VALUE));
+		int position = 0;
+		for (long i = 0; i < count; i++) {
+			if (directory.getInt(position) != CENTRAL_HEADER) {
+				throw new ZipException("Invalid central directory header");
+			}
+			final int flags = Short.toUnsignedInt(
+					directory.getShort(position + 8));
+			final int method = Short.toUnsignedInt(
+					directory.getShort(position + 10));
+			final int time = Short.toUnsignedInt(
+					directory.getShort(position + 12));
+			final int date = Short.toUnsignedInt(
+					directory.getShort(position + 14));
+			final int crc = directory.getInt(position + 16);
+			long compressedSize = Integer
+					.toUnsignedLong(directory.getInt(position + 20));
+			long size = Integer.toUnsignedLong(directory.getInt(position + 24));
+			final int nameLength = Short.toUnsignedInt(
+					directory.getShort(position + 28));
+			final int extraLength = Short.toUnsignedInt(
+					directory.getShort(position + 30));
+			final int commentLength = Short.toUnsignedInt(
+					directory.getShort(position + 32));
+			long localHeaderOffset = Integer
+					.toUnsignedLong(directory.getInt(position + 42));
+
+			// Entry names are assumed to be UTF-8, which covers ASCII names
+			// of archives without the language encoding flag
+			final String name = new String(directory.array(),
+					position + CENTRAL_HEADER_SIZE, nameLength,
+					StandardCharsets.UTF_8);
+
+			// The zip64 extended information only contains the fields whose
+			// regular value is 0xffffffff
+			int extra = position + CENTRAL_HEADER_SIZE + nameLength;
+			final int extraEnd = extra + extraLength;
+			while (extra + 4 <= extraEnd) {
+				final int id = Short.toUnsignedInt(directory.getShort(extra));
+				final int length = Short
+						.toUnsignedInt(directory.getShort(extra + 2));
+				if (id == ZIP64_EXTRA) {
+					int field = extra + 4;
+					if (size == ZIP64_MAGIC) {
+						size = directory.getLong(field);
+						field += 8;
+					}
+					if (compressedSize == ZIP64_MAGIC) {
+						compressedSize = directory.getLong(field);
+						field += 8;
+					}
+					if (localHeaderOffset == ZIP64_MAGIC) {
+						localHeaderOffset = directory.getLong(field);
+					}
+					break;
+				}
+				extra += 4 + length;
+			}
+			position = extraEnd + commentLength;
+
+			// Skip directories, encrypted entries and unsupported methods
+			if (name.endsWith("/") || (flags & FLAG_ENCRYPTED) != 0
+					|| method != ZipEntry.STORED
+							&& method != ZipEntry.DEFLATED
+					|| !name.startsWith(prefix)) {
+				continue;
+			}
+			result.putIfAbsent(name.substring(prefix.length()),
+					new Entry(StaticFileRequestHandler.getMimeType(name),
+							method, crc, compressedSize, size,
+							start + localHeaderOffset,
+							fromDosTime(time, date)));
+		}
+		return result;
+	}
+
+	private Entry resolve(final Request request) {
+		final String method = request.getMethod();
+		if (!"GET".equals(method) && !"HEAD".equals(method)) {
+			return null;
+		}
+		String path;
+		try {
+			path = new URI(request.getURL()).getPath();
+		} catch (final URISyntaxException e) {
+			return null;
+		}
+		if (path == null) {
+			return null;
+		}
+		if (path.isEmpty() || path.endsWith("/")) {
+			path += INDEX_FILE;
+		}
+		while (path.startsWith("/")) {
+			path = path.substring(1);
+		}
+		// Entries are looked up by name, so paths outside of the served
+		// directory never match
+		return entries.get(path);
+	}
+
+}
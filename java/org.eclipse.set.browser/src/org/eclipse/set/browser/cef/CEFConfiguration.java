@@ -8,6 +8,14 @@
  */
 package org.eclipse.set.browser.cef;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 import org.eclipse.set.browser.lib.CEFLibrary;
 
 /**
@@ -64,6 +72,58 @@ public class CEFConfiguration {
 		}
 	}
 
+	/**
+	 * Options of custom schemes.
+	 * 
+	 * Maps to cef_scheme_options_t
+	 */
+	public enum SCHEME_OPTION {
+		/**
+		 * Treat the scheme like http: URLs have a hostname and relative URLs
+		 * are resolved. Required to serve hostnames registered via
+		 * {@link org.eclipse.set.browser.Browser#registerRequestHandler}
+		 */
+		STANDARD(1 << 0),
+		/**
+		 * Treat the scheme like file: pages cannot access other local schemes
+		 */
+		LOCAL(1 << 1),
+		/**
+		 * Only pages of the same scheme may display the scheme's content
+		 */
+		DISPLAY_ISOLATED(1 << 2),
+		/**
+		 * Treat the scheme like https: pages are a secure context, which
+		 * enables e.g. service workers and SharedArrayBuffer
+		 */
+		SECURE(1 << 3),
+		/**
+		 * Allow CORS requests to the scheme. Requires {@link #STANDARD}
+		 */
+		CORS_ENABLED(1 << 4),
+		/**
+		 * Bypass the Content-Security-Policy checks of pages
+		 */
+		CSP_BYPASSING(1 << 5),
+		/**
+		 * Allow fetch() requests to the scheme
+		 */
+		FETCH_ENABLED(1 << 6);
+
+		private final int value;
+
+		SCHEME_OPTION(final int value) {
+			this.value = value;
+		}
+
+		/**
+		 * @return value
+		 */
+		public int getValue() {
+			return value;
+		}
+	}
+
 	private static int getDebugPort() {
 		try {
 			return Integer.parseInt(System.getProperty(
@@ -73,6 +133,18 @@ public class CEFConfiguration {
 		}
 	}
 
+	/**
+	 * Custom schemes and their options. Hostnames registered via
+	 * {@link org.eclipse.set.browser.Browser#registerRequestHandler} are
+	 * served for the schemes with the option STANDARD in addition to http and
+	 * https, e.g. set://hostname/ with the options STANDARD, SECURE,
+	 * CORS_ENABLED and FETCH_ENABLED. URLs of other schemes have no hostname,
+	 * so they are not served by request handlers.
+	 * 
+	 * Must be configured before the first browser is created
+	 */
+	public Map<String, Set<SCHEME_OPTION>> CustomSchemes = new LinkedHashMap<>();
+
 	/**
 	 * Port for remote cef debugging. 0 to disable
 	 */
@@ -96,4 +168,81 @@ public class CEFConfiguration {
 	 */
 	public String UserAgentProduct = System.getProperty(
 			"org.eclipse.set.browser.user-agent-product", "Eclipse SET");
+
+	/**
+	 * Executor to run {@link org.eclipse.set.browser.RequestHandler}s on.
+	 * 
+	 * By default every request is handled on its own virtual thread, so that
+	 * a slow handler does not block other requests. Set to null to handle
+	 * requests synchronously on the CEF IO thread.
+	 */
+	public Executor RequestExecutor = Executors
+			.newVirtualThreadPerTaskExecutor();
+
+	/**
+	 * Maximum time a {@link org.eclipse.set.browser.RequestHandler} may take
+	 * to handle a request. If it expires, the request is answered with 504
+	 * Gateway Timeout and the thread handling the request is interrupted.
+	 * Streaming the response data after the handler has returned is not
+	 * limited. Null to wait indefinitely
+	 */
+	public Duration RequestTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * Request timeouts of individual hostnames, overriding
+	 * {@link #RequestTimeout}
+	 */
+	public Map<String, Duration> RequestTimeouts = new ConcurrentHashMap<>();
+
+	/**
+	 * Maximum number of idle resource handlers kept for reuse. Resource
+	 * handlers are released by CEF after every request to a custom hostname,
+	 * so pooling them avoids allocating native memory for each request
+	 */
+	public int ResourceHandlerPoolSize = 64;
+
+	/**
+	 * Whether responses from {@link org.eclipse.set.browser.RequestHandler}s
+	 * are compressed on the fly with gzip or deflate, if the browser accepts
+	 * it. Only responses with a mime type in
+	 * {@link #ResponseCompressionMimeTypes} and without a Content-Encoding
+	 * are compressed
+	 */
+	public boolean ResponseCompression = false;
+
+	/**
+	 * Mime types of responses to compress
+	 */
+	public Set<String> ResponseCompressionMimeTypes = Set.of("text/html",
+			"text/css", "text/csv", "text/javascript", "text/plain",
+			"application/javascript", "application/json", "application/xml",
+			"image/svg+xml");
+
+	/**
+	 * Minimum size in bytes of responses to compress. Responses of unknown
+	 * length are always compressed
+	 */
+	public long ResponseCompressionThreshold = 1024;
+
+	/**
+	 * Maximum total size in bytes of responses from
+	 * {@link org.eclipse.set.browser.RequestHandler}s kept in memory. Only
+	 * responses allowing caching via Cache-Control: max-age are cached. 0 to
+	 * disable the cache
+	 */
+	public long ResponseCacheSize = 0;
+
+	/**
+	 * Maximum time to keep a response in the response cache
+	 */
+	public Duration ResponseCacheTimeToLive = Duration.ofMinutes(10);
+
+	/**
+	 * Maximum time to wait for the result of a synchronous script evaluation
+	 * and the time a script waits for the result of a
+	 * {@link org.eclipse.set.browser.swt.BrowserFunction}. If it expires, the
+	 * evaluation fails or an exception is raised in the script. Null (the
+	 * default) to wait indefinitely
+	 */
+	public Duration ScriptTimeout = null;
 }
@@ -17,46 +17,6 @@ package org.eclipse.set.browser.cef;
  */
 public class CEFFactory {
 
-	/**
-	 * Enumeration for Return Types received from JNI
-	 */
-	@SuppressWarnings("javadoc")
-	public enum ReturnType {
-		Array(4), Bool(1), Double(0), Error(5), Null(3), Str(2);
-
-		/**
-		 * @param v
-		 * @return the return type
-		 */
-		public static ReturnType from(final String v) {
-			try {
-				final int value = Integer.parseInt(v);
-				for (final ReturnType rt : ReturnType.values()) {
-					if (rt.intValue() == value) {
-						return rt;
-					}
-				}
-				// Unknown return type provided
-				throw new IllegalArgumentException(v);
-			} catch (final NumberFormatException e) {
-				throw new IllegalArgumentException(v, e);
-			}
-		}
-
-		private final int value;
-
-		private ReturnType(final int value) {
-			this.value = value;
-		}
-
-		/**
-		 * @return the integral value
-		 */
-		public int intValue() {
-			return value;
-		}
-	}
-
 	/**
 	 * Browser Process ID
 	 */
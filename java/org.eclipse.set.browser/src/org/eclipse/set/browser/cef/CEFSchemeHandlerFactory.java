@@ -8,32 +8,62 @@
  */
 package org.eclipse.set.browser.cef;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.set.browser.cef.handlers.ResponseCache;
 import org.eclipse.set.browser.cef.handlers.SchemeHandlerFactory;
 
 /**
  * Handler for custom CEF hostnames
+ *
+ * The registry is safe for concurrent use: hostnames are registered and
+ * deregistered atomically per hostname, while lookups on the request path do
+ * not lock.
  */
 public class CEFSchemeHandlerFactory {
-	private final Map<String, SchemeHandlerFactory> schemeHandlers = new HashMap<>();
+	private volatile ResponseCache responseCache;
+	private final Map<String, SchemeHandlerFactory> schemeHandlers = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the response cache shared by all hostnames or null, if
+	 *         {@link CEFConfiguration#ResponseCacheSize} is 0
+	 */
+	public ResponseCache getResponseCache() {
+		if (responseCache == null) {
+			synchronized (this) {
+				final CEFConfiguration configuration = ChromiumStatic
+						.getCEFConfiguration();
+				if (responseCache == null
+						&& configuration.ResponseCacheSize > 0) {
+					responseCache = new ResponseCache(
+							configuration.ResponseCacheSize,
+							configuration.ResponseCacheTimeToLive);
+				}
+			}
+		}
+		return responseCache;
+	}
 
 	void deregisterSchemeHandler(final Chromium browser,
 			final String hostname) {
-		if (schemeHandlers.containsKey(hostname)) {
-			if (schemeHandlers.get(hostname).removeBrowser(browser)) {
-				schemeHandlers.remove(hostname);
+		schemeHandlers.computeIfPresent(hostname, (name, factory) -> {
+			if (!factory.removeBrowser(browser)) {
+				return factory;
 			}
-		}
+			// Last browser using this hostname
+			factory.dispose();
+			return null;
+		});
 	}
 
 	void registerSchemeHandler(final Chromium browser, final String hostname) {
-		if (schemeHandlers.containsKey(hostname)) {
-			schemeHandlers.get(hostname).addBrowser(browser);
-		} else {
-			schemeHandlers.put(hostname,
-					new SchemeHandlerFactory(hostname, browser));
-		}
+		schemeHandlers.compute(hostname, (name, factory) -> {
+			if (factory == null) {
+				return new SchemeHandlerFactory(name, browser);
+			}
+			factory.addBrowser(browser);
+			return factory;
+		});
 	}
 }
@@ -14,8 +14,6 @@
 package org.eclipse.set.browser.cef;
 
 import java.io.IOException;
-import java.lang.reflect.Array;
-import java.lang.reflect.Type;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -23,16 +21,19 @@ import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.text.NumberFormat;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
-import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import org.eclipse.set.browser.RequestHandler;
 import org.eclipse.set.browser.WebBrowser;
-import org.eclipse.set.browser.cef.CEFFactory.ReturnType;
 import org.eclipse.set.browser.cef.handlers.ResourceHandler;
 import org.eclipse.set.browser.cef.handlers.StringVisitor;
 import org.eclipse.set.browser.cef.handlers.browser.ClientHandler;
@@ -81,20 +82,6 @@ import org.eclipse.swt.widgets.Shell;
  * Chromium WebBrowser implementation
  */
 public class Chromium extends WebBrowser {
-	/**
-	 * Interface for JS Callbacks
-	 */
-	public static interface EvalReturned {
-		/**
-		 * @param loop
-		 * @param type
-		 *            type of the result
-		 * @param value
-		 *            value of the result
-		 */
-		void invoke(int loop, int type, long value);
-	}
-
 	final class CEFFocusListener implements FocusListener {
 		private boolean enabled = true;
 
@@ -125,6 +112,10 @@ public class Chromium extends WebBrowser {
 
 	private static int EVAL = 1;
 
+	// Number of BrowserFunctions currently being called. While a renderer
+	// process waits for the result of a function, it cannot evaluate scripts
+	private static int functionCalls = 0;
+
 	private static final int LOOP = 75;
 
 	private static final int MAX_PROGRESS = 100;
@@ -136,6 +127,14 @@ public class Chromium extends WebBrowser {
 		return a << 24 | r << 16 | g << 8 | b << 0;
 	}
 
+	private static void checkNotInFunction() {
+		if (functionCalls > 0) {
+			throw new SWTException(SWT.ERROR_FAILED_EVALUATE,
+					"Scripts cannot be evaluated synchronously while a "
+							+ "BrowserFunction is called");
+		}
+	}
+
 	private static String getPlainUrl(final String url) {
 		if (url != null && url.startsWith(DATA_TEXT_URL)) {
 			return url.substring(0, DATA_TEXT_URL.length() - 8);
@@ -147,6 +146,14 @@ public class Chromium extends WebBrowser {
 		return url;
 	}
 
+	private static String wrapScript(final String script) {
+		final StringBuilder buffer = new StringBuilder("(function() {");
+		buffer.append("\n");
+		buffer.append(script);
+		buffer.append("\n})()");
+		return buffer.toString();
+	}
+
 	protected static long getHandle(final Composite control) {
 		return control.handle;
 	}
@@ -182,6 +189,10 @@ public class Chromium extends WebBrowser {
 		Display.getDefault().asyncExec(() -> C.free(ptr));
 	}
 
+	// Ids of pending evaluations of multiple scripts
+	private final Set<Integer> batchEvaluations = ConcurrentHashMap
+			.newKeySet();
+
 	@SuppressWarnings("hiding")
 	private long browser;
 
@@ -199,6 +210,9 @@ public class Chromium extends WebBrowser {
 
 	private CompletableFuture<Boolean> enableProgress = new CompletableFuture<>();
 
+	// Pending evaluations by id
+	private final Map<Integer, CompletableFuture<Object>> evaluations = new ConcurrentHashMap<>();
+
 	private FocusListener focusListener;
 
 	private boolean hasFocus;
@@ -346,39 +360,52 @@ public class Chromium extends WebBrowser {
 		if (!jsEnabled) {
 			return null;
 		}
-		if (browser == 0) {
-			if (paintListener != null) {
-				chromium.removePaintListener(paintListener);
-				paintListener = null;
-				createBrowser();
-			}
+		checkNotInFunction();
+		prepareEvaluation();
+		return await(startEvaluation(script));
+	}
+
+	@Override
+	public CompletableFuture<Object> evaluateAsync(final String script) {
+		if (!jsEnabled) {
+			return CompletableFuture.completedFuture(null);
 		}
-		checkBrowser();
-		final Object[] ret = new Object[1];
-		final EvalReturned callback = (loop, type, valuePtr) -> {
-			if (loop == 1) {
-				chromium.getDisplay().readAndDispatch();
-			} else {
-				final String value = ChromiumLib
-						.cefswt_cstring_to_java(valuePtr);
-				ret[0] = mapType(type, value);
-			}
-		};
-		final Callback callback_cb = new Callback(callback, "invoke",
-				void.class, new Type[] { int.class, int.class, long.class });
+		prepareEvaluation();
+		return startEvaluation(script);
+	}
 
-		final StringBuilder buffer = new StringBuilder("(function() {");
-		buffer.append("\n");
-		buffer.append(script);
-		buffer.append("\n})()");
+	@Override
+	public Object[] evaluateBatch(final List<String> scripts) {
+		checkNotInFunction();
+		return await(evaluateBatchAsync(scripts));
+	}
 
-		final boolean returnSt = cef_browser_t.cefswt_eval(browser,
-				buffer.toString(), EVAL++, checkGetAddress(callback_cb));
-		disposeCallback(callback_cb);
-		if (!returnSt) {
-			throw new SWTException("Script that was evaluated failed");
-		}
-		return ret[0];
+	@Override
+	public CompletableFuture<Object[]> evaluateBatchAsync(
+			final List<String> scripts) {
+		if (!jsEnabled || scripts.isEmpty()) {
+			return CompletableFuture
+					.completedFuture(new Object[scripts.size()]);
+		}
+		prepareEvaluation();
+		final Integer id = Integer.valueOf(EVAL++);
+		batchEvaluations.add(id);
+		final CompletableFuture<Object> result = pendingEvaluation(id);
+		final long message = cef_browser_t.cefswt_eval_batch_create(
+				id.intValue());
+		for (final String script : scripts) {
+			cef_browser_t.cefswt_eval_batch_add(message, wrapScript(script));
+		}
+		if (!cef_browser_t.cefswt_eval_batch_send(browser, message)) {
+			result.completeExceptionally(
+					new SWTException("Script that was evaluated failed"));
+		}
+		final CompletableFuture<Object[]> results = result
+				.thenApply(Object[].class::cast);
+		// Discard the pending evaluation if the results time out or are
+		// cancelled
+		results.whenComplete((value, e) -> result.cancel(false));
+		return results;
 	}
 
 	@Override
@@ -670,6 +697,19 @@ public class Chromium extends WebBrowser {
 			}
 		}
 
+		// Deregister request handlers
+		for (final String hostname : requestHandlers.keySet()) {
+			ChromiumStatic.getSchemeHandlerFactory()
+					.deregisterSchemeHandler(this, hostname);
+		}
+
+		// Results of pending evaluations will not arrive anymore
+		for (final CompletableFuture<Object> evaluation : evaluations
+				.values()) {
+			evaluation.completeExceptionally(
+					new SWTException(SWT.ERROR_WIDGET_DISPOSED));
+		}
+
 		Display.getCurrent().asyncExec(() -> {
 			clientHandler.dispose();
 			popupClientHandler.dispose();
@@ -939,42 +979,54 @@ public class Chromium extends WebBrowser {
 				|| chromium == null) {
 			return 0;
 		}
+		final int evalId = ChromiumLib.cefswt_eval_result_id(processMessage);
+		if (evalId >= 0) {
+			onEvalResult(evalId, processMessage);
+			return 1;
+		}
 		final FunctionSt fn = new FunctionSt();
 		ChromiumLib.cefswt_function_id(processMessage, fn);
 		final int id = fn.id;
 		if (id < 0) {
 			return 0;
 		}
-		final int argsSize = fn.args;
-		final Object[] args = new Object[argsSize];
-		for (int i = 0; i < argsSize; i++) {
-			final int arg = i;
-			final EvalReturned callback = (loop, type, valuePtr) -> {
-				if (loop == 0) {
-					final String value = ChromiumLib
-							.cefswt_cstring_to_java(valuePtr);
-					args[arg] = mapType(type, value);
-				}
-			};
-			final Callback callback_cb = new Callback(callback, "invoke",
-					void.class,
-					new Type[] { int.class, int.class, long.class });
-			ChromiumLib.cefswt_function_arg(processMessage, i,
-					checkGetAddress(callback_cb));
-			disposeCallback(callback_cb);
-		}
-		@SuppressWarnings("boxing")
-		final Object ret = functions.get(id).function(args);
-
-		final Object[] returnPair = convertType(ret);
-		final ReturnType returnType = (ReturnType) returnPair[0];
-		final String returnStr = (String) returnPair[1];
-		ChromiumLib.cefswt_function_return(browser, id, fn.port,
-				returnType.intValue(), returnStr);
+		byte[] ret;
+		functionCalls++;
+		try {
+			// Arguments are passed as a single encoded array
+			final Object[] args = (Object[]) ValueCodec.decode(
+					ChromiumLib.cefswt_message_binary(processMessage, 4));
+			ret = ValueCodec.encode(
+					functions.get(Integer.valueOf(id)).function(args));
+		} catch (final RuntimeException e) {
+			// Raise an exception in JavaScript instead of leaving the
+			// renderer waiting for a result
+			ret = ValueCodec.encodeError(String.valueOf(e.getMessage()));
+		} finally {
+			functionCalls--;
+		}
+		ChromiumLib.cefswt_function_return(browser, fn.call, fn.process,
+				fn.port, ret);
 
 		return 1;
 	}
 
+	/**
+	 * Triggered when the render process of the browser terminated, e.g. when
+	 * it crashed
+	 */
+	public void on_render_process_terminated() {
+		// Results of pending evaluations will not arrive anymore
+		for (final CompletableFuture<Object> evaluation : evaluations
+				.values()) {
+			evaluation.completeExceptionally(
+					new SWTException(SWT.ERROR_FAILED_EVALUATE,
+							"Render process terminated"));
+		}
+		// Function results cannot be returned to the process anymore
+		ChromiumLib.cefswt_function_prune();
+	}
+
 	/**
 	 * Triggered when the focus is set
 	 * 
@@ -1062,11 +1114,11 @@ public class Chromium extends WebBrowser {
 	 * @return the custom handler for the given hostname or null
 	 */
 	public ResourceHandler onRequestCustomHandler(final String name) {
-		if (!requestHandlers.containsKey(name)) {
+		final RequestHandler requestHandler = requestHandlers.get(name);
+		if (requestHandler == null) {
 			return null;
 		}
-		final RequestHandler requestHandler = requestHandlers.get(name);
-		return new ResourceHandler(requestHandler);
+		return ResourceHandler.acquire(name, requestHandler);
 	}
 
 	@Override
@@ -1080,7 +1132,12 @@ public class Chromium extends WebBrowser {
 	@Override
 	public void registerRequestHandler(final String hostname,
 			final RequestHandler handler) {
-		this.requestHandlers.put(hostname, handler);
+		if (this.requestHandlers.put(hostname, handler) == null
+				&& browser != 0) {
+			// Browser already created, register the hostname right away
+			ChromiumStatic.getSchemeHandlerFactory()
+					.registerSchemeHandler(this, hostname);
+		}
 	}
 
 	/**
@@ -1149,42 +1206,37 @@ public class Chromium extends WebBrowser {
 		}
 	}
 
-	private Object[] convertType(final Object ret) {
-		ReturnType returnType = ReturnType.Error;
-		String returnStr = "";
-		if (ret == null) {
-			returnType = ReturnType.Null;
-			returnStr = "null";
-		} else if (Boolean.class.isInstance(ret)) {
-			returnType = ReturnType.Bool;
-			returnStr = Boolean.TRUE.equals(ret) ? "1" : "0";
-		} else if (Number.class.isInstance(ret)) {
-			returnType = ReturnType.Double;
-			returnStr = NumberFormat.getInstance(Locale.US).format(ret);
-		} else if (String.class.isInstance(ret)) {
-			returnType = ReturnType.Str;
-			returnStr = ret.toString();
-		} else if (ret.getClass().isArray()) {
-			returnType = ReturnType.Array;
-			final StringBuilder buffer = new StringBuilder();
-			buffer.append("\"");
-			for (int i = 0; i < Array.getLength(ret); i++) {
-				if (i > 0) {
-					buffer.append(";");
-				}
-				final Object[] arrayElem = convertType(Array.get(ret, i));
-				buffer.append("'");
-				buffer.append(((ReturnType) arrayElem[0]).intValue());
-				buffer.append(",");
-				buffer.append((String) arrayElem[1]);
-				buffer.append("'");
+	private <T> T await(final CompletableFuture<T> result) {
+		// The result arrives as a process message on the UI thread, so keep
+		// dispatching events while waiting instead of polling for it
+		final Display display = chromium.getDisplay();
+		final Duration timeout = ChromiumStatic
+				.getCEFConfiguration().ScriptTimeout;
+		// The timer also wakes up the event loop
+		final Runnable timeOut = () -> result
+				.completeExceptionally(new SWTException(
+						SWT.ERROR_FAILED_EVALUATE, "Evaluation timed out"));
+		if (timeout != null) {
+			display.timerExec(
+					(int) Math.min(timeout.toMillis(), Integer.MAX_VALUE),
+					timeOut);
+		}
+		while (!result.isDone()) {
+			if (!display.readAndDispatch()) {
+				display.sleep();
 			}
-			buffer.append("\"");
-			returnStr = buffer.toString();
-		} else {
-			returnStr = "Unsupported return type " + ret.getClass().getName();
 		}
-		return new Object[] { returnType, returnStr };
+		if (timeout != null && !display.isDisposed()) {
+			display.timerExec(-1, timeOut);
+		}
+		try {
+			return result.join();
+		} catch (final CompletionException e) {
+			if (e.getCause() instanceof final SWTException cause) {
+				throw cause;
+			}
+			throw e;
+		}
 	}
 
 	@SuppressWarnings("boxing")
@@ -1241,42 +1293,35 @@ public class Chromium extends WebBrowser {
 		return DPIUtil.autoScaleUp(chromium.getSize());
 	}
 
-	private Object mapType(final int type, final String value)
-			throws SWTException {
-		if (type == ReturnType.Error.intValue()) {
-			if ((SWT.ERROR_INVALID_RETURN_VALUE + "").equals(value)) {
-				throw new SWTException(SWT.ERROR_INVALID_RETURN_VALUE);
-			}
-			throw new SWTException(SWT.ERROR_FAILED_EVALUATE, value);
-		} else if (type == ReturnType.Null.intValue()) {
-			return null;
-		} else if (type == ReturnType.Bool.intValue()) {
-			return "1".equals(value) ? Boolean.TRUE : Boolean.FALSE;
-		} else if (type == ReturnType.Double.intValue()) {
-			return Double.valueOf(value);
-		} else if (type == ReturnType.Array.intValue()) {
-			final String value_unquoted = value.substring(1,
-					value.length() - 1);
-			final String[] elements = value_unquoted
-					.split(";(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
-			final Object[] array = new Object[elements.length];
-			for (int i = 0; i < array.length; i++) {
-				final String elemUnquoted = elements[i].substring(1,
-						elements[i].length() - 1);
-				final String[] parts = elemUnquoted
-						.split(",(?=(?:[^']*'[^']*')*[^']*$)", 2);
-				final ReturnType elemType = CEFFactory.ReturnType
-						.from(parts[0]);
-				final Object elemValue = mapType(elemType.intValue(), parts[1]);
-				array[i] = elemValue;
+	private void onEvalResult(final int id, final long processMessage) {
+		final Integer key = Integer.valueOf(id);
+		final CompletableFuture<Object> result = evaluations.remove(key);
+		final boolean batch = batchEvaluations.remove(key);
+		if (result == null) {
+			return;
+		}
+		// The first entry of the message is the id
+		final int count = ChromiumLib.cefswt_message_size(processMessage)
+				- 1;
+		final Object[] values = new Object[count];
+		for (int i = 0; i < count; i++) {
+			try {
+				values[i] = ValueCodec.decode(ChromiumLib
+						.cefswt_message_binary(processMessage, i + 1));
+			} catch (final SWTException e) {
+				values[i] = e;
 			}
-			return array;
+		}
+
+		if (batch) {
+			result.complete(values);
+		} else if (values[0] instanceof final SWTException e) {
+			result.completeExceptionally(e);
 		} else {
-			return value;
+			result.complete(values[0]);
 		}
 	}
 
-	@SuppressWarnings("boxing")
 	private void openJsDialog(final int dialog_type, final String title,
 			final String msg, final long default_prompt_text,
 			final long callback) {
@@ -1322,6 +1367,17 @@ public class Chromium extends WebBrowser {
 		}
 	}
 
+	private CompletableFuture<Object> pendingEvaluation(final Integer id) {
+		final CompletableFuture<Object> result = new CompletableFuture<>();
+		evaluations.put(id, result);
+		// Discard the result of evaluations which timed out or were cancelled
+		result.whenComplete((value, e) -> {
+			evaluations.remove(id, result);
+			batchEvaluations.remove(id);
+		});
+		return result;
+	}
+
 	private void prepareBrowser() {
 		hwnd = getHandle(chromium);
 
@@ -1340,6 +1396,28 @@ public class Chromium extends WebBrowser {
 		});
 	}
 
+	private void prepareEvaluation() {
+		if (browser == 0) {
+			if (paintListener != null) {
+				chromium.removePaintListener(paintListener);
+				paintListener = null;
+				createBrowser();
+			}
+		}
+		checkBrowser();
+	}
+
+	private CompletableFuture<Object> startEvaluation(final String script) {
+		final Integer id = Integer.valueOf(EVAL++);
+		final CompletableFuture<Object> result = pendingEvaluation(id);
+		if (!cef_browser_t.cefswt_eval(browser, wrapScript(script),
+				id.intValue())) {
+			result.completeExceptionally(
+					new SWTException("Script that was evaluated failed"));
+		}
+		return result;
+	}
+
 	private void updateText() {
 		if (browser != 0 && !isDisposed() && disposing == Dispose.No) {
 			cef_browser_t.cefswt_get_text(browser, textVisitor.get());
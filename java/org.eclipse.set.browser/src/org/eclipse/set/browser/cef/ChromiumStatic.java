@@ -63,6 +63,8 @@ public class ChromiumStatic {
 
 	private static MessageLoop messageLoop = new MessageLoop();
 
+	private static RequestMetrics requestMetrics = new RequestMetrics();
+
 	private static CEFSchemeHandlerFactory schemeHandlerFactory = new CEFSchemeHandlerFactory();
 
 	/**
@@ -72,6 +74,13 @@ public class ChromiumStatic {
 		return messageLoop;
 	}
 
+	/**
+	 * @return the metrics of requests to custom hostnames
+	 */
+	public static RequestMetrics getRequestMetrics() {
+		return requestMetrics;
+	}
+
 	/**
 	 * @return the schemeHandlerFactory
 	 */
@@ -133,6 +142,7 @@ public class ChromiumStatic {
 			setupCookies();
 			app = new AppHandler();
 			cookieVisitor = new CookieVisitor();
+			requestMetrics.registerMBean();
 
 			ChromiumLib.cefswt_init(app.get(),
 					CEFLibrary.getSubprocessExePath(),
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of requests to custom hostnames
+ *
+ * For every hostname and route (see
+ * {@link org.eclipse.set.browser.RequestRouter#getRoute}) the time to the
+ * response headers, the time to the last byte, the number of bytes
+ * transferred and the status codes are recorded. Latencies are kept in
+ * histograms with power-of-two buckets, so recording a request only updates a
+ * few counters and does not allocate.
+ *
+ * The metrics are also available via JMX as
+ * {@value #OBJECT_NAME}.
+ */
+public class RequestMetrics implements RequestMetricsMXBean {
+	/**
+	 * Latency histogram with power-of-two buckets in nanoseconds
+	 */
+	public static final class Histogram {
+		private static final int BUCKETS = 64;
+
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+		/**
+		 * @param quantile
+		 *            the quantile (0..1)
+		 * @return the upper bound of the bucket containing the quantile in
+		 *         nanoseconds or 0, if nothing was recorded
+		 */
+		public long getQuantile(final double quantile) {
+			final long[] counts = new long[BUCKETS];
+			long total = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				counts[i] = buckets.get(i);
+				total += counts[i];
+			}
+			if (total == 0) {
+				return 0;
+			}
+			final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += counts[i];
+				if (seen >= rank) {
+					return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+				}
+			}
+			return Long.MAX_VALUE;
+		}
+
+		void record(final long nanos) {
+			// Bucket i holds values in [2^(i-1), 2^i)
+			buckets.incrementAndGet(
+					Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(
+							Math.max(0, nanos))));
+		}
+
+		void reset() {
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets.set(i, 0);
+			}
+		}
+	}
+
+	/**
+	 * Metrics of a single hostname and route
+	 */
+	public static final class Series {
+		final LongAdder bytes = new LongAdder();
+		final String host;
+		final Histogram lastByte = new Histogram();
+		final Histogram headers = new Histogram();
+		final String route;
+		// Status code classes 1xx to 5xx, other codes are counted as 5xx
+		final AtomicLongArray statusClasses = new AtomicLongArray(5);
+		final LongAdder timeouts = new LongAdder();
+
+		Series(final String host, final String route) {
+			this.host = host;
+			this.route = route;
+		}
+
+		/**
+		 * Records a completed request
+		 *
+		 * @param timeToHeaders
+		 *            the time from opening the request until the response
+		 *            headers were provided in nanoseconds
+		 * @param timeToLastByte
+		 *            the time from opening the request until the last byte
+		 *            was read in nanoseconds
+		 * @param bytesTransferred
+		 *            the number of bytes of the response body
+		 * @param statusCode
+		 *            the response status code
+		 */
+		public void record(final long timeToHeaders,
+				final long timeToLastByte, final long bytesTransferred,
+				final int statusCode) {
+			headers.record(timeToHeaders);
+			lastByte.record(timeToLastByte);
+			bytes.add(bytesTransferred);
+			final int statusClass = statusCode / 100;
+			statusClasses.incrementAndGet(
+					statusClass >= 1 && statusClass <= 5 ? statusClass - 1
+							: 4);
+		}
+
+		/**
+		 * Records a request whose handler did not finish in time. The 504
+		 * response is recorded separately once it has been transferred
+		 */
+		public void recordTimeout() {
+			timeouts.increment();
+		}
+
+		RequestStatistics snapshot() {
+			long count = 0;
+			final long[] statuses = new long[5];
+			for (int i = 0; i < statuses.length; i++) {
+				statuses[i] = statusClasses.get(i);
+				count += statuses[i];
+			}
+			return new RequestStatistics(host, route, count, bytes.sum(),
+					statuses, headers.getQuantile(0.5),
+					headers.getQuantile(0.99), lastByte.getQuantile(0.5),
+					lastByte.getQuantile(0.99), timeouts.sum());
+		}
+
+		void reset() {
+			bytes.reset();
+			headers.reset();
+			lastByte.reset();
+			timeouts.reset();
+			for (int i = 0; i < statusClasses.length(); i++) {
+				statusClasses.set(i, 0);
+			}
+		}
+	}
+
+	/**
+	 * Route name used for requests not dispatched by a
+	 * {@link org.eclipse.set.browser.RequestRouter}
+	 */
+	public static final String DEFAULT_ROUTE = "*";
+
+	/**
+	 * Object name of the metrics MXBean
+	 */
+	public static final String OBJECT_NAME = "org.eclipse.set.browser:type=RequestMetrics";
+
+	// Maximum number of routes tracked per hostname. Further routes are
+	// recorded as DEFAULT_ROUTE
+	private static final int MAX_ROUTES = 1000;
+
+	private final Map<String, Map<String, Series>> hosts = new ConcurrentHashMap<>();
+
+	/**
+	 * @return statistics of all hostnames and routes
+	 */
+	@Override
+	public List<RequestStatistics> getStatistics() {
+		final List<RequestStatistics> result = new ArrayList<>();
+		for (final Map<String, Series> routes : hosts.values()) {
+			for (final Series series : routes.values()) {
+				result.add(series.snapshot());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param host
+	 *            the hostname
+	 * @return statistics of all routes of the hostname
+	 */
+	public List<RequestStatistics> getStatistics(final String host) {
+		final List<RequestStatistics> result = new ArrayList<>();
+		final Map<String, Series> routes = hosts.get(host);
+		if (routes != null) {
+			for (final Series series : routes.values()) {
+				result.add(series.snapshot());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the metrics of a hostname and route. This does not allocate,
+	 * once the series exists.
+	 *
+	 * @param host
+	 *            the hostname
+	 * @param route
+	 *            the route or null for {@link #DEFAULT_ROUTE}
+	 * @return the series to record requests to
+	 */
+	public Series getSeries(final String host, final String route) {
+		final Map<String, Series> routes = hosts.computeIfAbsent(host,
+				h -> new ConcurrentHashMap<>());
+		final String name = route != null && (routes.containsKey(route)
+				|| routes.size() < MAX_ROUTES) ? route : DEFAULT_ROUTE;
+		final Series series = routes.get(name);
+		if (series != null) {
+			return series;
+		}
+		return routes.computeIfAbsent(name, r -> new Series(host, r));
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server
+	 */
+	public void registerMBean() {
+		try {
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!ManagementFactory.getPlatformMBeanServer()
+					.isRegistered(name)) {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+						name);
+			}
+		} catch (final JMException e) {
+			// Metrics remain available via Java
+		}
+	}
+
+	@Override
+	public void reset() {
+		for (final Map<String, Series> routes : hosts.values()) {
+			for (final Series series : routes.values()) {
+				series.reset();
+			}
+		}
+	}
+}
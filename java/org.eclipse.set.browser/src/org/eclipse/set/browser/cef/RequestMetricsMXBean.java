@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef;
+
+import java.util.List;
+
+/**
+ * JMX interface of {@link RequestMetrics}
+ */
+public interface RequestMetricsMXBean {
+	/**
+	 * @return statistics of all hostnames and routes
+	 */
+	public List<RequestStatistics> getStatistics();
+
+	/**
+	 * Resets all recorded metrics
+	 */
+	public void reset();
+}
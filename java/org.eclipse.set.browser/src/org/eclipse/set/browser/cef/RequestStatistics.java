@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef;
+
+/**
+ * Snapshot of the metrics of a hostname and route
+ *
+ * Latencies are upper bounds of histogram buckets, so they overestimate the
+ * actual value by less than a factor of two.
+ */
+public final class RequestStatistics {
+	private final long bytes;
+	private final long count;
+	private final String host;
+	private final long lastByteP50;
+	private final long lastByteP99;
+	private final long headersP50;
+	private final long headersP99;
+	private final String route;
+	private final long[] statusClasses;
+	private final long timeouts;
+
+	RequestStatistics(final String host, final String route,
+			final long count, final long bytes, final long[] statusClasses,
+			final long headersP50, final long headersP99,
+			final long lastByteP50, final long lastByteP99,
+			final long timeouts) {
+		this.host = host;
+		this.route = route;
+		this.count = count;
+		this.bytes = bytes;
+		this.statusClasses = statusClasses;
+		this.headersP50 = headersP50;
+		this.headersP99 = headersP99;
+		this.lastByteP50 = lastByteP50;
+		this.lastByteP99 = lastByteP99;
+		this.timeouts = timeouts;
+	}
+
+	/**
+	 * @return the number of response body bytes transferred
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * @return the number of requests
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return the median time to the response headers in nanoseconds
+	 */
+	public long getHeadersP50() {
+		return headersP50;
+	}
+
+	/**
+	 * @return the 99th percentile of the time to the response headers in
+	 *         nanoseconds
+	 */
+	public long getHeadersP99() {
+		return headersP99;
+	}
+
+	/**
+	 * @return the hostname
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * @return the median time to the last byte in nanoseconds
+	 */
+	public long getLastByteP50() {
+		return lastByteP50;
+	}
+
+	/**
+	 * @return the 99th percentile of the time to the last byte in nanoseconds
+	 */
+	public long getLastByteP99() {
+		return lastByteP99;
+	}
+
+	/**
+	 * @return the route
+	 */
+	public String getRoute() {
+		return route;
+	}
+
+	/**
+	 * @return the number of 1xx responses
+	 */
+	public long getStatus1xx() {
+		return statusClasses[0];
+	}
+
+	/**
+	 * @return the number of 2xx responses
+	 */
+	public long getStatus2xx() {
+		return statusClasses[1];
+	}
+
+	/**
+	 * @return the number of 3xx responses
+	 */
+	public long getStatus3xx() {
+		return statusClasses[2];
+	}
+
+	/**
+	 * @return the number of 4xx responses
+	 */
+	public long getStatus4xx() {
+		return statusClasses[3];
+	}
+
+	/**
+	 * @return the number of 5xx responses (including invalid status codes)
+	 */
+	public long getStatus5xx() {
+		return statusClasses[4];
+	}
+
+	/**
+	 * @return the number of requests answered with 504 Gateway Timeout, as
+	 *         the request handler did not finish in time
+	 */
+	public long getTimeouts() {
+		return timeouts;
+	}
+}
@@ -0,0 +1,331 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
+
+/**
+ * Binary encoding of values exchanged between JavaScript and Java
+ *
+ * Each value starts with a tag byte followed by its payload. All numbers are
+ * little-endian, lengths and counts are 32 bit:
+ * <ul>
+ * <li>{@link #NULL}: no payload</li>
+ * <li>{@link #BOOL}: one byte, 0 or 1</li>
+ * <li>{@link #INT}: int</li>
+ * <li>{@link #DOUBLE}: double</li>
+ * <li>{@link #STRING}, {@link #ERROR}: length and UTF-8 bytes</li>
+ * <li>{@link #BINARY}: length and bytes</li>
+ * <li>{@link #ARRAY}: count and the elements</li>
+ * <li>{@link #OBJECT}: count and the entries, each a key (length and UTF-8
+ * bytes) followed by the value</li>
+ * </ul>
+ * Values are encoded and decoded in a single pass. Must match the codec
+ * module of chromium_subp.
+ */
+final class ValueCodec {
+	static final byte ARRAY = 5;
+	static final byte BINARY = 7;
+	static final byte BOOL = 1;
+	static final byte DOUBLE = 3;
+	static final byte ERROR = 8;
+	static final byte INT = 2;
+	static final byte NULL = 0;
+	static final byte OBJECT = 6;
+	static final byte STRING = 4;
+
+	/**
+	 * Maximum nesting of arrays and objects accepted when decoding
+	 */
+	static final int MAX_DEPTH = 64;
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	/**
+	 * Decodes a value. JavaScript numbers are decoded as {@link Double},
+	 * arrays as Object[], objects as {@link Map} and ArrayBuffers as byte[].
+	 *
+	 * @param buffer
+	 *            the encoded value or null, if no value was received. The
+	 *            buffer's position is advanced past the value
+	 * @return the value
+	 * @throws SWTException
+	 *             if the value is or contains an error or is invalid
+	 */
+	static Object decode(final ByteBuffer buffer) throws SWTException {
+		if (buffer == null) {
+			throw new SWTException(SWT.ERROR_INVALID_RETURN_VALUE);
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			return decode(buffer, 0);
+		} catch (final BufferUnderflowException
+				| IllegalArgumentException e) {
+			throw new SWTException(SWT.ERROR_INVALID_RETURN_VALUE,
+					e.toString());
+		}
+	}
+
+	/**
+	 * Encodes a value. Supported are null, {@link Boolean}, {@link Number},
+	 * {@link String}, byte[] and {@link ByteBuffer} (as ArrayBuffer), arrays
+	 * of supported values and {@link Map}s and records (as objects) with
+	 * supported values. Other values as well as cyclic or too deeply nested
+	 * values are encoded as an error.
+	 *
+	 * @param value
+	 *            the value
+	 * @return the encoded value
+	 */
+	static byte[] encode(final Object value) {
+		final Encoder encoder = new Encoder();
+		encoder.write(value);
+		return encoder.toByteArray();
+	}
+
+	/**
+	 * Encodes an error, which is raised as an exception in JavaScript
+	 *
+	 * @param message
+	 *            the error message
+	 * @return the encoded error
+	 */
+	static byte[] encodeError(final String message) {
+		final Encoder encoder = new Encoder();
+		encoder.writeError(message);
+		return encoder.toByteArray();
+	}
+
+	private static Object decode(final ByteBuffer buffer, final int depth) {
+		final byte tag = buffer.get();
+		switch (tag) {
+		case NULL:
+			return null;
+		case BOOL:
+			return Boolean.valueOf(buffer.get() != 0);
+		case INT:
+			return Double.valueOf(buffer.getInt());
+		case DOUBLE:
+			return Double.valueOf(buffer.getDouble());
+		case STRING:
+			return readString(buffer);
+		case BINARY: {
+			final byte[] data = new byte[readLength(buffer)];
+			buffer.get(data);
+			return data;
+		}
+		case ARRAY: {
+			final Object[] array = new Object[readCount(buffer, depth)];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = decode(buffer, depth + 1);
+			}
+			return array;
+		}
+		case OBJECT: {
+			final int count = readCount(buffer, depth);
+			final Map<String, Object> object = new LinkedHashMap<>();
+			for (int i = 0; i < count; i++) {
+				final String key = readString(buffer);
+				object.put(key, decode(buffer, depth + 1));
+			}
+			return object;
+		}
+		case ERROR: {
+			final String message = readString(buffer);
+			if ((SWT.ERROR_INVALID_RETURN_VALUE + "").equals(message)) {
+				throw new SWTException(SWT.ERROR_INVALID_RETURN_VALUE);
+			}
+			throw new SWTException(SWT.ERROR_FAILED_EVALUATE, message);
+		}
+		default:
+			throw new IllegalArgumentException("Unknown value type " + tag);
+		}
+	}
+
+	private static int readCount(final ByteBuffer buffer, final int depth) {
+		if (depth >= MAX_DEPTH) {
+			throw new IllegalArgumentException("Value nested too deeply");
+		}
+		// Each element takes at least one byte, which prevents large
+		// allocations for corrupt counts
+		final int count = buffer.getInt();
+		if (count < 0 || count > buffer.remaining()) {
+			throw new IllegalArgumentException("Invalid count " + count);
+		}
+		return count;
+	}
+
+	private static int readLength(final ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		if (length < 0 || length > buffer.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		return length;
+	}
+
+	private static String readString(final ByteBuffer buffer) {
+		final int length = readLength(buffer);
+		final String value;
+		if (buffer.hasArray()) {
+			value = new String(buffer.array(),
+					buffer.arrayOffset() + buffer.position(), length,
+					StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+		} else {
+			final byte[] bytes = new byte[length];
+			buffer.get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+		return value;
+	}
+
+	private static final class Encoder {
+		private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY)
+				.order(ByteOrder.LITTLE_ENDIAN);
+
+		// Arrays, maps and records currently being encoded
+		private final Set<Object> parents = Collections
+				.newSetFromMap(new IdentityHashMap<>());
+
+		byte[] toByteArray() {
+			final byte[] result = new byte[buffer.position()];
+			buffer.flip();
+			buffer.get(result);
+			return result;
+		}
+
+		void write(final Object value) {
+			if (value == null) {
+				ensure(1).put(NULL);
+			} else if (value instanceof final Boolean bool) {
+				ensure(2).put(BOOL).put((byte) (bool.booleanValue() ? 1 : 0));
+			} else if (value instanceof Integer || value instanceof Short
+					|| value instanceof Byte) {
+				ensure(5).put(INT).putInt(((Number) value).intValue());
+			} else if (value instanceof final Number number) {
+				ensure(9).put(DOUBLE).putDouble(number.doubleValue());
+			} else if (value instanceof final String string) {
+				writeBytes(STRING, string.getBytes(StandardCharsets.UTF_8));
+			} else if (value instanceof final byte[] bytes) {
+				writeBytes(BINARY, bytes);
+			} else if (value instanceof final ByteBuffer data) {
+				ensure(5 + data.remaining()).put(BINARY)
+						.putInt(data.remaining()).put(data.duplicate());
+			} else if (value.getClass().isArray() || value instanceof Map
+					|| value instanceof Record) {
+				writeContainer(value);
+			} else {
+				writeError("Unsupported return type "
+						+ value.getClass().getName());
+			}
+		}
+
+		void writeBytes(final byte tag, final byte[] bytes) {
+			ensure(5 + bytes.length).put(tag).putInt(bytes.length).put(bytes);
+		}
+
+		void writeError(final String message) {
+			writeBytes(ERROR, message.getBytes(StandardCharsets.UTF_8));
+		}
+
+		private ByteBuffer ensure(final int size) {
+			if (buffer.remaining() < size) {
+				final int capacity = Math.max(buffer.capacity() * 2,
+						buffer.position() + size);
+				final ByteBuffer grown = ByteBuffer.allocate(capacity)
+						.order(ByteOrder.LITTLE_ENDIAN);
+				grown.put(buffer.flip());
+				buffer = grown;
+			}
+			return buffer;
+		}
+
+		private void writeArray(final Object array) {
+			final int length = Array.getLength(array);
+			ensure(5).put(ARRAY).putInt(length);
+			for (int i = 0; i < length; i++) {
+				write(Array.get(array, i));
+			}
+		}
+
+		private void writeContainer(final Object value) {
+			if (parents.size() >= MAX_DEPTH) {
+				writeError("Value nested too deeply");
+				return;
+			}
+			if (!parents.add(value)) {
+				writeError("Cyclic value");
+				return;
+			}
+			try {
+				if (value instanceof final Map<?, ?> map) {
+					writeMap(map);
+				} else if (value instanceof final Record rec) {
+					writeRecord(rec);
+				} else {
+					writeArray(value);
+				}
+			} finally {
+				parents.remove(value);
+			}
+		}
+
+		private void writeKey(final String key) {
+			final byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+			ensure(4 + bytes.length).putInt(bytes.length).put(bytes);
+		}
+
+		private void writeMap(final Map<?, ?> map) {
+			final int start = ensure(5).put(OBJECT).position();
+			buffer.putInt(0);
+			int count = 0;
+			for (final Map.Entry<?, ?> entry : map.entrySet()) {
+				writeKey(String.valueOf(entry.getKey()));
+				write(entry.getValue());
+				count++;
+			}
+			// Written afterwards, as the size of a concurrent map may change
+			buffer.putInt(start, count);
+		}
+
+		private void writeRecord(final Record rec) {
+			final RecordComponent[] components = rec.getClass()
+					.getRecordComponents();
+			ensure(5).put(OBJECT).putInt(components.length);
+			for (final RecordComponent component : components) {
+				writeKey(component.getName());
+				try {
+					final Method accessor = component.getAccessor();
+					accessor.trySetAccessible();
+					write(accessor.invoke(rec));
+				} catch (final ReflectiveOperationException e) {
+					writeError(e.toString());
+				}
+			}
+		}
+	}
+
+	private ValueCodec() {
+		// Static methods only
+	}
+}
@@ -8,6 +8,11 @@
  */
 package org.eclipse.set.browser.cef.handlers;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.set.browser.cef.CEFConfiguration.SCHEME_OPTION;
 import org.eclipse.set.browser.cef.ChromiumStatic;
 import org.eclipse.set.browser.lib.ChromiumLib;
 import org.eclipse.set.browser.lib.cef_command_line_t;
@@ -18,6 +23,42 @@ import org.eclipse.set.browser.lib.cef_command_line_t;
  * @author Stuecker
  */
 public class AppHandler {
+	/**
+	 * Command line switch passing the custom schemes to subprocesses, as
+	 * every process has to register the same schemes
+	 */
+	static final String CUSTOM_SCHEMES_SWITCH = "set-custom-schemes";
+
+	/**
+	 * Command line switch passing the script timeout in milliseconds to
+	 * render processes, which wait for the results of BrowserFunctions
+	 */
+	static final String SCRIPT_TIMEOUT_SWITCH = "set-script-timeout";
+
+	private static int getOptions(final Set<SCHEME_OPTION> options) {
+		int result = 0;
+		for (final SCHEME_OPTION option : options) {
+			result |= option.getValue();
+		}
+		return result;
+	}
+
+	/**
+	 * @return the configured custom schemes as a comma separated list of
+	 *         name:options pairs or null, if there are none
+	 */
+	static String getCustomSchemes() {
+		final Map<String, Set<SCHEME_OPTION>> schemes = ChromiumStatic
+				.getCEFConfiguration().CustomSchemes;
+		if (schemes.isEmpty()) {
+			return null;
+		}
+		return schemes.entrySet().stream()
+				.map(scheme -> scheme.getKey() + ":"
+						+ getOptions(scheme.getValue()))
+				.collect(Collectors.joining(","));
+	}
+
 	private final BrowserProcessHandler browserProcessHandler = new BrowserProcessHandler();
 	private final long cefAppHandler = ChromiumLib.allocate_cef_app_t(this);
 
@@ -41,6 +82,14 @@ public class AppHandler {
 		return browserProcessHandler.get();
 	}
 
+	@SuppressWarnings({ "unused", "static-method" }) // Called via JNI
+	private void on_register_custom_schemes(final long app,
+			final long registrar) {
+		ChromiumStatic.getCEFConfiguration().CustomSchemes.forEach(
+				(name, options) -> ChromiumLib.cefswt_add_custom_scheme(
+						registrar, name, getOptions(options)));
+	}
+
 	@SuppressWarnings({ "unused", "static-method" }) // Called via JNI
 	private void on_before_command_line_processing(final long app, final long process_type, final long command_line) {
 		// Disable updating Chromium components from Google servers
@@ -8,8 +8,11 @@
  */
 package org.eclipse.set.browser.cef.handlers;
 
+import java.time.Duration;
+
 import org.eclipse.set.browser.cef.ChromiumStatic;
 import org.eclipse.set.browser.lib.ChromiumLib;
+import org.eclipse.set.browser.lib.cef_command_line_t;
 
 /**
  * Java Handler for cef_browser_process_handler_t
@@ -35,6 +38,23 @@ public class BrowserProcessHandler {
 		return cefBrowserProcessHandler;
 	}
 
+	@SuppressWarnings({ "static-method", "unused" }) // Called from JNI
+	private void on_before_child_process_launch(
+			final long pbrowserProcessHandler, final long command_line) {
+		final String schemes = AppHandler.getCustomSchemes();
+		if (schemes != null) {
+			cef_command_line_t.cefswt_append_switch(command_line,
+					AppHandler.CUSTOM_SCHEMES_SWITCH, schemes);
+		}
+		final Duration timeout = ChromiumStatic
+				.getCEFConfiguration().ScriptTimeout;
+		if (timeout != null) {
+			cef_command_line_t.cefswt_append_switch(command_line,
+					AppHandler.SCRIPT_TIMEOUT_SWITCH,
+					String.valueOf(timeout.toMillis()));
+		}
+	}
+
 	@SuppressWarnings({ "static-method", "unused" }) // Called from JNI
 	private void on_schedule_message_pump_work(
 			final long pbrowserProcessHandler, final long delay) {
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef.handlers;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * Read-only seekable channel over the remaining content of a
+ * {@link ByteBuffer}
+ */
+final class ByteBufferChannel implements SeekableByteChannel {
+	private final ByteBuffer buffer;
+	private boolean open = true;
+
+	/**
+	 * @param buffer
+	 *            the buffer to read. The buffer itself is not modified
+	 */
+	ByteBufferChannel(final ByteBuffer buffer) {
+		this.buffer = buffer.slice();
+	}
+
+	@Override
+	public void close() {
+		open = false;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public long position() throws ClosedChannelException {
+		ensureOpen();
+		return buffer.position();
+	}
+
+	@Override
+	public SeekableByteChannel position(final long newPosition)
+			throws ClosedChannelException {
+		ensureOpen();
+		buffer.position((int) Math.min(newPosition, buffer.limit()));
+		return this;
+	}
+
+	@Override
+	public int read(final ByteBuffer dst) throws ClosedChannelException {
+		ensureOpen();
+		if (!buffer.hasRemaining()) {
+			return -1;
+		}
+		final int count = Math.min(dst.remaining(), buffer.remaining());
+		dst.put(dst.position(), buffer, buffer.position(), count);
+		dst.position(dst.position() + count);
+		buffer.position(buffer.position() + count);
+		return count;
+	}
+
+	@Override
+	public long size() throws ClosedChannelException {
+		ensureOpen();
+		return buffer.limit();
+	}
+
+	@Override
+	public SeekableByteChannel truncate(final long size) {
+		throw new NonWritableChannelException();
+	}
+
+	@Override
+	public int write(final ByteBuffer src) {
+		throw new NonWritableChannelException();
+	}
+
+	private void ensureOpen() throws ClosedChannelException {
+		if (!open) {
+			throw new ClosedChannelException();
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef.handlers;
+
+/**
+ * A single byte range as requested by a HTTP Range header
+ */
+final class ByteRange {
+	private static final String BYTES_UNIT = "bytes=";
+
+	/**
+	 * Range which cannot be satisfied for the given content length
+	 */
+	static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+	/**
+	 * Parses a Range header value
+	 *
+	 * Only a single range is supported. Multiple ranges, unknown units or
+	 * malformed values are ignored, in which case the full content should be
+	 * returned.
+	 *
+	 * @param header
+	 *            the Range header value
+	 * @param length
+	 *            the length of the full content
+	 * @return the requested range, {@link #UNSATISFIABLE} or null, if the
+	 *         header should be ignored
+	 */
+	static ByteRange parse(final String header, final long length) {
+		if (header == null || !header.regionMatches(true, 0, BYTES_UNIT, 0,
+				BYTES_UNIT.length())) {
+			return null;
+		}
+		final String spec = header.substring(BYTES_UNIT.length()).trim();
+		final int separator = spec.indexOf('-');
+		if (separator < 0 || spec.indexOf(',') >= 0) {
+			return null;
+		}
+
+		try {
+			if (separator == 0) {
+				// Suffix range: the last n bytes
+				final long suffix = Long.parseLong(spec.substring(1));
+				if (suffix <= 0 || length == 0) {
+					return UNSATISFIABLE;
+				}
+				return new ByteRange(Math.max(0, length - suffix), length - 1);
+			}
+
+			final long start = Long
+					.parseLong(spec.substring(0, separator).trim());
+			final String endSpec = spec.substring(separator + 1).trim();
+			// An open range ends with the content
+			final long end = endSpec.isEmpty() ? Long.MAX_VALUE
+					: Long.parseLong(endSpec);
+			if (start < 0 || end < start) {
+				return null;
+			}
+			if (start >= length) {
+				return UNSATISFIABLE;
+			}
+			return new ByteRange(start, Math.min(end, length - 1));
+		} catch (final NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private final long end;
+	private final long start;
+
+	private ByteRange(final long start, final long end) {
+		this.start = start;
+		this.end = end;
+	}
+
+	/**
+	 * @return the offset of the last byte (inclusive)
+	 */
+	long getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return the number of bytes in the range
+	 */
+	long getLength() {
+		return end - start + 1;
+	}
+
+	/**
+	 * @return the offset of the first byte
+	 */
+	long getStart() {
+		return start;
+	}
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef.handlers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Channel compressing the content of another channel with gzip or deflate
+ *
+ * The content is compressed chunk by chunk while it is read, so the
+ * uncompressed content is never held in memory completely. Deflater
+ * instances are pooled, as their native state is expensive to create.
+ */
+final class CompressingChannel implements ReadableByteChannel {
+	/**
+	 * Content encoding gzip (RFC 1952)
+	 */
+	static final String GZIP = "gzip";
+
+	/**
+	 * Content encoding deflate (zlib format, RFC 1950)
+	 */
+	static final String DEFLATE = "deflate";
+
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b,
+			Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	private static final int POOL_SIZE = 16;
+
+	private static final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(
+			POOL_SIZE);
+	private static final BlockingQueue<Deflater> gzipDeflaters = new ArrayBlockingQueue<>(
+			POOL_SIZE);
+
+	private static final Pattern REJECTED = Pattern.compile("q=0(\\.0*)?");
+
+	/**
+	 * Selects the content encoding to use for a request
+	 *
+	 * @param acceptEncoding
+	 *            the value of the request's Accept-Encoding header
+	 * @return {@link #GZIP}, {@link #DEFLATE} or null, if the client accepts
+	 *         neither
+	 */
+	static String negotiate(final String acceptEncoding) {
+		if (acceptEncoding == null || acceptEncoding.isBlank()) {
+			return null;
+		}
+		boolean deflate = false;
+		for (final String accepted : acceptEncoding.split(",")) {
+			final String[] parts = accepted.trim().split(";");
+			final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+			if (parts.length > 1
+					&& REJECTED.matcher(parts[1].trim()).matches()) {
+				continue;
+			}
+			if (coding.equals(GZIP)) {
+				// Prefer gzip
+				return GZIP;
+			}
+			deflate |= coding.equals(DEFLATE);
+		}
+		return deflate ? DEFLATE : null;
+	}
+
+	private final CRC32 crc;
+	private final Deflater deflater;
+	private boolean eof;
+	// Number of input bytes at the last flush
+	private long flushedBytes;
+	private boolean flushing;
+	private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+	private boolean open = true;
+	// Header or trailer bytes not yet returned
+	private ByteBuffer pending;
+	private final ReadableByteChannel source;
+	private boolean trailerWritten;
+
+	/**
+	 * @param source
+	 *            the channel to compress
+	 * @param encoding
+	 *            {@link #GZIP} or {@link #DEFLATE}
+	 */
+	CompressingChannel(final ReadableByteChannel source,
+			final String encoding) {
+		this.source = source;
+		final boolean gzip = GZIP.equals(encoding);
+		final Deflater pooled = (gzip ? gzipDeflaters : deflaters).poll();
+		// gzip uses raw deflate data wrapped in its own header and trailer
+		deflater = pooled != null ? pooled
+				: new Deflater(Deflater.DEFAULT_COMPRESSION, gzip);
+		crc = gzip ? new CRC32() : null;
+		pending = gzip ? ByteBuffer.wrap(GZIP_HEADER) : null;
+		trailerWritten = !gzip;
+		input.flip();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (!open) {
+			return;
+		}
+		open = false;
+		try {
+			source.close();
+		} finally {
+			deflater.reset();
+			if (!(crc != null ? gzipDeflaters : deflaters).offer(deflater)) {
+				deflater.end();
+			}
+		}
+	}
+
+	@Override
+	public boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public int read(final ByteBuffer dst) throws IOException {
+		if (!open) {
+			throw new ClosedChannelException();
+		}
+		final int start = dst.position();
+		while (dst.hasRemaining()) {
+			if (pending != null && pending.hasRemaining()) {
+				final int count = Math.min(dst.remaining(),
+						pending.remaining());
+				dst.put(pending.slice(pending.position(), count));
+				pending.position(pending.position() + count);
+				continue;
+			}
+			if (deflater.finished()) {
+				if (trailerWritten) {
+					break;
+				}
+				pending = ByteBuffer.allocate(8)
+						.order(ByteOrder.LITTLE_ENDIAN)
+						.putInt((int) crc.getValue())
+						.putInt((int) deflater.getBytesRead())
+						.flip();
+				trailerWritten = true;
+				continue;
+			}
+			if (deflater.needsInput() && !flushing && !eof) {
+				if (dst.position() > start) {
+					// Return the available output instead of blocking on
+					// the source
+					break;
+				}
+				if (!fill()) {
+					// No data available from the source right now
+					break;
+				}
+				continue;
+			}
+			deflater.deflate(dst,
+					flushing ? Deflater.SYNC_FLUSH : Deflater.NO_FLUSH);
+			if (flushing && dst.hasRemaining()) {
+				// All pending output has been flushed
+				flushing = false;
+			}
+		}
+
+		final int count = dst.position() - start;
+		return count == 0 && deflater.finished() && trailerWritten
+				&& (pending == null || !pending.hasRemaining()) ? -1 : count;
+	}
+
+	/**
+	 * Reads the next chunk of the source into the deflater
+	 *
+	 * @return whether there is new input or output to process
+	 * @throws IOException
+	 *             if reading the source fails
+	 */
+	private boolean fill() throws IOException {
+		input.clear();
+		final int read = source.read(input);
+		input.flip();
+		if (read < 0) {
+			eof = true;
+			deflater.finish();
+			return true;
+		}
+		if (crc != null) {
+			crc.update(input.duplicate());
+		}
+		deflater.setInput(input);
+		if (read == 0 && deflater.getBytesRead() > flushedBytes) {
+			// The source has no further data available right now (e.g. a
+			// stream of events), so flush the data compressed so far
+			// instead of waiting for more
+			flushing = true;
+			flushedBytes = deflater.getBytesRead();
+		}
+		return read > 0 || flushing;
+	}
+}
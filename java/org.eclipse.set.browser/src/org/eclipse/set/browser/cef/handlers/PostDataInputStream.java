@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef.handlers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.set.browser.lib.cef_post_data_t;
+import org.eclipse.set.browser.lib.cef_request_t;
+
+/**
+ * Input stream over the post data elements of a cef_request_t
+ *
+ * The post data is only fetched once the stream is read. Elements are read
+ * one after another: file elements are streamed from disk, byte elements are
+ * copied once into a direct buffer.
+ */
+final class PostDataInputStream extends InputStream {
+	private ByteBuffer currentBytes;
+	private InputStream currentFile;
+	private int elementCount;
+	private int elementIndex;
+	private long[] elements;
+	private final long cefRequest;
+	private boolean fetched;
+
+	PostDataInputStream(final long cefRequest) {
+		this.cefRequest = cefRequest;
+	}
+
+	@Override
+	public int available() throws IOException {
+		if (currentBytes != null) {
+			return currentBytes.remaining();
+		}
+		if (currentFile != null) {
+			return currentFile.available();
+		}
+		return 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		closeElement();
+		elementIndex = elementCount;
+		release();
+	}
+
+	@Override
+	public int read() throws IOException {
+		while (true) {
+			if (currentBytes != null && currentBytes.hasRemaining()) {
+				return currentBytes.get() & 0xFF;
+			}
+			if (currentFile != null) {
+				final int value = currentFile.read();
+				if (value >= 0) {
+					return value;
+				}
+			}
+			if (!nextElement()) {
+				return -1;
+			}
+		}
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+			throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		while (true) {
+			if (currentBytes != null && currentBytes.hasRemaining()) {
+				final int count = Math.min(len, currentBytes.remaining());
+				currentBytes.get(b, off, count);
+				return count;
+			}
+			if (currentFile != null) {
+				final int count = currentFile.read(b, off, len);
+				if (count >= 0) {
+					return count;
+				}
+			}
+			if (!nextElement()) {
+				return -1;
+			}
+		}
+	}
+
+	private void closeElement() throws IOException {
+		currentBytes = null;
+		if (currentFile != null) {
+			currentFile.close();
+			currentFile = null;
+		}
+	}
+
+	private boolean nextElement() throws IOException {
+		closeElement();
+		if (!fetched) {
+			fetch();
+		}
+
+		while (elementIndex < elementCount) {
+			final long element = elements[elementIndex++];
+			if (element == 0) {
+				continue;
+			}
+			switch (cef_post_data_t
+					.cefswt_post_data_element_get_type(element)) {
+				case cef_post_data_t.PDE_TYPE_BYTES:
+					final long size = cef_post_data_t
+							.cefswt_post_data_element_get_bytes_count(element);
+					if (size > 0) {
+						final ByteBuffer bytes = ByteBuffer
+								.allocateDirect((int) size);
+						final long read = cef_post_data_t
+								.cefswt_post_data_element_get_bytes(element,
+										bytes);
+						currentBytes = bytes.limit((int) read);
+						return true;
+					}
+					break;
+				case cef_post_data_t.PDE_TYPE_FILE:
+					currentFile = Files.newInputStream(Path.of(cef_post_data_t
+							.cefswt_post_data_element_get_file(element)));
+					return true;
+				default:
+					// Empty element
+					break;
+			}
+		}
+
+		// All elements have been read
+		release();
+		return false;
+	}
+
+	/**
+	 * Fetches all elements at once, as looking up a single element requires
+	 * fetching all elements
+	 */
+	private void fetch() {
+		fetched = true;
+		final long postData = cef_request_t
+				.cefswt_request_get_post_data(cefRequest);
+		if (postData == 0) {
+			return;
+		}
+		elements = new long[(int) cef_post_data_t
+				.cefswt_post_data_get_element_count(postData)];
+		elementCount = (int) cef_post_data_t
+				.cefswt_post_data_get_elements(postData, elements);
+		// The elements hold their own references
+		cef_post_data_t.cefswt_post_data_release(postData);
+	}
+
+	private void release() {
+		fetched = true;
+		if (elements != null) {
+			for (int i = 0; i < elementCount; i++) {
+				if (elements[i] != 0) {
+					cef_post_data_t
+							.cefswt_post_data_element_release(elements[i]);
+				}
+			}
+			elements = null;
+			elementCount = 0;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef.handlers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Flow;
+
+/**
+ * Non-blocking channel over the buffers emitted by a {@link Flow.Publisher}
+ *
+ * Reading returns 0 while no data is available. Use
+ * {@link #awaitData(Runnable)} to get notified once reading can continue.
+ * Buffers are requested from the publisher in small batches, so a fast
+ * publisher cannot fill up memory while the browser is reading slowly.
+ */
+final class PublisherChannel
+		implements ReadableByteChannel, Flow.Subscriber<ByteBuffer> {
+	// Number of buffers requested in advance
+	private static final int PREFETCH = 16;
+
+	private final Deque<ByteBuffer> buffers = new ArrayDeque<>();
+	private boolean completed;
+	// Number of buffers read since the last request to the publisher
+	private int consumed;
+	private Throwable error;
+	private Runnable listener;
+	private boolean open = true;
+	private Flow.Subscription subscription;
+
+	/**
+	 * @param publisher
+	 *            the publisher to subscribe to
+	 */
+	PublisherChannel(final Flow.Publisher<ByteBuffer> publisher) {
+		publisher.subscribe(this);
+	}
+
+	/**
+	 * Registers a listener to be called once data is available, the
+	 * publisher has completed or failed
+	 *
+	 * @param onAvailable
+	 *            the listener. It is called at most once on the publisher's
+	 *            thread
+	 * @return false if reading can continue immediately. In this case the
+	 *         listener is not registered
+	 */
+	synchronized boolean awaitData(final Runnable onAvailable) {
+		if (!buffers.isEmpty() || completed || error != null || !open) {
+			return false;
+		}
+		listener = onAvailable;
+		return true;
+	}
+
+	@Override
+	public void close() {
+		final Flow.Subscription toCancel;
+		synchronized (this) {
+			if (!open) {
+				return;
+			}
+			open = false;
+			buffers.clear();
+			listener = null;
+			toCancel = subscription;
+		}
+		if (toCancel != null) {
+			toCancel.cancel();
+		}
+	}
+
+	@Override
+	public synchronized boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public void onComplete() {
+		final Runnable toNotify;
+		synchronized (this) {
+			completed = true;
+			toNotify = takeListener();
+		}
+		notifyListener(toNotify);
+	}
+
+	@Override
+	public void onError(final Throwable throwable) {
+		final Runnable toNotify;
+		synchronized (this) {
+			error = throwable;
+			toNotify = takeListener();
+		}
+		notifyListener(toNotify);
+	}
+
+	@Override
+	public void onNext(final ByteBuffer item) {
+		final Runnable toNotify;
+		synchronized (this) {
+			if (!open) {
+				return;
+			}
+			buffers.add(item);
+			toNotify = takeListener();
+		}
+		notifyListener(toNotify);
+	}
+
+	@Override
+	public void onSubscribe(final Flow.Subscription newSubscription) {
+		synchronized (this) {
+			if (subscription == null && open) {
+				subscription = newSubscription;
+				newSubscription.request(PREFETCH);
+				return;
+			}
+		}
+		// Already subscribed or closed
+		newSubscription.cancel();
+	}
+
+	@Override
+	public int read(final ByteBuffer dst) throws IOException {
+		int count = 0;
+		final int requested;
+		synchronized (this) {
+			if (!open) {
+				throw new ClosedChannelException();
+			}
+			while (dst.hasRemaining() && !buffers.isEmpty()) {
+				final ByteBuffer head = buffers.peek();
+				final int length = Math.min(dst.remaining(), head.remaining());
+				dst.put(head.slice(head.position(), length));
+				head.position(head.position() + length);
+				count += length;
+				if (!head.hasRemaining()) {
+					buffers.poll();
+					consumed++;
+				}
+			}
+			if (count == 0 && buffers.isEmpty()) {
+				if (error != null) {
+					throw new IOException(error);
+				}
+				if (completed) {
+					return -1;
+				}
+			}
+			// Request more buffers once half of the prefetched ones have
+			// been read
+			requested = consumed >= PREFETCH / 2 ? consumed : 0;
+			if (requested > 0) {
+				consumed = 0;
+			}
+		}
+		if (requested > 0) {
+			subscription.request(requested);
+		}
+		return count;
+	}
+
+	private Runnable takeListener() {
+		final Runnable result = listener;
+		listener = null;
+		return result;
+	}
+
+	private static void notifyListener(final Runnable toNotify) {
+		if (toNotify != null) {
+			toNotify.run();
+		}
+	}
+}
@@ -11,28 +11,101 @@ package org.eclipse.set.browser.cef.handlers;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.set.browser.RequestHandler;
-import org.eclipse.set.browser.RequestHandler.Request;
 import org.eclipse.set.browser.RequestHandler.Response;
+import org.eclipse.set.browser.RequestRouter;
+import org.eclipse.set.browser.ResponseValidator;
+import org.eclipse.set.browser.cef.CEFConfiguration;
+import org.eclipse.set.browser.cef.ChromiumStatic;
+import org.eclipse.set.browser.cef.RequestMetrics;
 import org.eclipse.set.browser.lib.ChromiumLib;
-import org.eclipse.set.browser.lib.cef_download_item_t;
+import org.eclipse.set.browser.lib.cef_callback_t;
 import org.eclipse.set.browser.lib.cef_request_t;
+import org.eclipse.set.browser.lib.cef_resource_read_callback_t;
 import org.eclipse.set.browser.lib.cef_response_t;
 
 /**
  * Implementation for cef_resource_handler_t
+ *
+ * The native structure is reference counted. Once CEF releases it, the handler
+ * is returned to a pool for reuse (see
+ * {@link #acquire(String, RequestHandler)}) or freed if the pool is full, so
+ * it is never freed explicitly.
  */
 public class ResourceHandler {
-	class RequestImpl implements Request {
+	class RequestImpl implements RequestRouter.MatchedRequest {
+		private PostDataInputStream body;
 		private long cefRequest;
+		private Map<String, List<String>> headers;
+		private RequestRouter.Match match;
+
+		@Override
+		public InputStream getBody() {
+			if (body == null) {
+				body = new PostDataInputStream(cefRequest);
+			}
+			return body;
+		}
 
 		@Override
 		public String getHeader(final String headerName) {
+			if (headers != null) {
+				final List<String> values = headers.get(headerName);
+				return values != null ? values.get(0) : "";
+			}
 			return cef_request_t.cefswt_request_get_header_by_name(cefRequest,
 					headerName);
 		}
 
+		@Override
+		public Map<String, List<String>> getHeaders() {
+			if (headers == null) {
+				// Fetch all headers in a single native call
+				final String[] pairs = cef_request_t
+						.cefswt_request_get_header_map(cefRequest);
+				final Map<String, List<String>> map = new TreeMap<>(
+						String.CASE_INSENSITIVE_ORDER);
+				for (int i = 0; i + 1 < pairs.length; i += 2) {
+					map.computeIfAbsent(pairs[i], k -> new ArrayList<>(1))
+							.add(pairs[i + 1]);
+				}
+				map.replaceAll((name, values) -> List.copyOf(values));
+				headers = Collections.unmodifiableMap(map);
+			}
+			return headers;
+		}
+
+		@Override
+		public RequestRouter.Match getMatch() {
+			return match;
+		}
+
 		@Override
 		public String getMethod() {
 			return cef_request_t.cefswt_request_get_method(cefRequest);
@@ -43,64 +116,232 @@ public class ResourceHandler {
 			return cef_request_t.cefswt_request_get_url(cefRequest);
 		}
 
+		@Override
+		public void setMatch(final RequestRouter.Match match) {
+			this.match = match;
+		}
+
+		void reset() throws IOException {
+			headers = null;
+			match = null;
+			if (body != null) {
+				body.close();
+				body = null;
+			}
+		}
+
 	}
 
 	class ResponseImpl implements Response {
-		private long cefResponse;
-		private InputStream responseStream;
+		// Response values are collected in Java, as the request handler may
+		// run before CEF provides the cef_response_t
+		private final Map<String, String> headers = new TreeMap<>(
+				String.CASE_INSENSITIVE_ORDER);
+		private String mimeType;
+		// Set if the response data is provided by a publisher
+		private PublisherChannel publisher;
+		private ReadableByteChannel responseChannel;
+		private long responseLength;
+		private int statusCode;
 
 		@Override
 		public void setHeader(final String headerName,
 				final String headerValue) {
-			cef_response_t.cefswt_response_set_header(cefResponse, headerName,
-					headerValue);
+			headers.put(headerName, headerValue);
 		}
 
 		@Override
 		public void setMimeType(final String mimeType) {
-			cef_response_t.cefswt_response_set_mime_type(cefResponse, mimeType);
+			this.mimeType = mimeType;
+		}
+
+		@Override
+		public void setResponseData(final ByteBuffer buffer) {
+			setResponseData(new ByteBufferChannel(buffer), buffer.remaining());
+		}
+
+		@Override
+		public void setResponseData(final Flow.Publisher<ByteBuffer> data) {
+			final PublisherChannel channel = new PublisherChannel(data);
+			setResponseData(channel, -1);
+			publisher = channel;
 		}
 
 		@Override
 		public void setResponseData(final InputStream stream) {
-			responseStream = stream;
+			setResponseData(stream, -1);
+		}
+
+		@Override
+		public void setResponseData(final InputStream stream,
+				final long length) {
+			setResponseData(Channels.newChannel(stream), length);
+		}
+
+		@Override
+		public void setResponseData(final ReadableByteChannel channel) {
+			long length = -1;
+			if (channel instanceof final SeekableByteChannel seekable) {
+				try {
+					length = seekable.size() - seekable.position();
+				} catch (final IOException e) {
+					// Length unknown
+				}
+			}
+			setResponseData(channel, length);
+		}
+
+		@Override
+		public void setResponseData(final ReadableByteChannel channel,
+				final long length) {
+			if (publisher != null) {
+				publisher.close();
+				publisher = null;
+			}
+			responseChannel = channel;
+			responseLength = length;
 		}
 
 		@Override
 		public void setResponseData(final String data) {
-			setResponseData(new ByteArrayInputStream(data.getBytes()));
+			final byte[] bytes = data.getBytes();
+			setResponseData(new ByteArrayInputStream(bytes), bytes.length);
 		}
 
 		@Override
 		public void setStatus(final int statusCode) {
-			cef_response_t.cefswt_response_set_status_code(cefResponse,
-					statusCode);
+			this.statusCode = statusCode;
 		}
 
+		void apply(final long cefResponse) {
+			cef_response_t.cefswt_response_set_mime_type(cefResponse,
+					mimeType);
+			if (!headers.isEmpty()) {
+				// Set all headers in a single native call
+				final String[] pairs = new String[headers.size() * 2];
+				int i = 0;
+				for (final Map.Entry<String, String> header : headers
+						.entrySet()) {
+					pairs[i++] = header.getKey();
+					pairs[i++] = header.getValue();
+				}
+				cef_response_t.cefswt_response_set_header_map(cefResponse,
+						pairs);
+			}
+			if (statusCode != 0) {
+				cef_response_t.cefswt_response_set_status_code(cefResponse,
+						statusCode);
+			}
+		}
+
+		void load(final ResponseCache.Entry entry) {
+			mimeType = entry.mimeType;
+			headers.putAll(entry.headers);
+			setResponseData(new ByteBufferChannel(entry.body),
+					entry.body.remaining());
+		}
+
+		void reset() {
+			headers.clear();
+			statusCode = 0;
+			// Ensure mime type and a response is always set
+			setMimeType("text/plain");
+			setResponseData("");
+		}
+	}
+
+	// net::ERR_FAILED
+	private static final int ERR_FAILED = -2;
+	// Result of readResponse() if the read continues asynchronously
+	private static final int READ_PENDING = Integer.MIN_VALUE;
+
+	private static final int STATUS_GATEWAY_TIMEOUT = 504;
+	private static final byte[] TIMEOUT_BODY = "Gateway timeout"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	// Enforces request timeouts. A single thread suffices, as timeout tasks
+	// never block
+	private static final ScheduledExecutorService timeouts = Executors
+			.newSingleThreadScheduledExecutor(task -> {
+				final Thread thread = new Thread(task, "CEF request timeout");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	// Idle handlers available for reuse
+	private static final Queue<ResourceHandler> pool = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger poolSize = new AtomicInteger();
+
+	/**
+	 * Returns a pooled handler or creates a new one
+	 *
+	 * @param hostname
+	 *            the hostname
+	 * @param requestHandler
+	 *            the request handler
+	 * @return the resource handler
+	 */
+	public static ResourceHandler acquire(final String hostname,
+			final RequestHandler requestHandler) {
+		final ResourceHandler handler = pool.poll();
+		if (handler == null) {
+			return new ResourceHandler(hostname, requestHandler);
+		}
+		poolSize.decrementAndGet();
+		handler.hostname = hostname;
+		handler.requestHandler = requestHandler;
+		return handler;
 	}
 
 	private final long cefResourceHandler = ChromiumLib
 			.allocate_cef_resource_handler_t(this);
 
+	private String hostname;
 	private final RequestImpl request = new RequestImpl();
-	private final RequestHandler requestHandler;
+	private RequestHandler requestHandler;
 	private final ResponseImpl response = new ResponseImpl();
+	// Offset of the response channel relative to the start of the content
+	private long contentOffset;
+	private ByteBuffer dataBuffer;
+	private long dataBufferAddress;
+	// Remaining bytes to be read or -1 if unknown
+	private long remainingBytes;
+	// Bytes skipped on request of CEF
+	private long skippedBytes;
+	private CompletableFuture<Void> pendingRequest;
+	private volatile boolean cancelled;
+	// Whether CEF has been notified that the response headers are available
+	private boolean continued;
+	// Thread running the request handler, interrupted on timeout
+	private Thread handlerThread;
+	// Whether the request handler is running or waiting to be run, i.e.
+	// whether the request may still time out
+	private boolean handling;
+	private ScheduledFuture<?> timeout;
+	private ReadableByteChannel timeoutChannel;
+	private volatile boolean timedOut;
+	// Incremented whenever the handler is released, so that a deferred read
+	// never continues on a reused handler
+	private long readGeneration;
+	// Request metrics
+	private long bytesTransferred;
+	private long headersTime;
+	private long lastByteTime;
+	private long openTime;
+	private RequestMetrics.Series series;
 
 	/**
+	 * @param hostname
+	 *            the hostname
 	 * @param requestHandler
 	 *            the request handler
 	 */
-	public ResourceHandler(final RequestHandler requestHandler) {
+	public ResourceHandler(final String hostname,
+			final RequestHandler requestHandler) {
+		this.hostname = hostname;
 		this.requestHandler = requestHandler;
 	}
 
-	/**
-	 * Disposes the handler
-	 */
-	public void dispose() {
-		ChromiumLib.deallocate_cef_resource_handler_t(cefResourceHandler);
-	}
-
 	/**
 	 * @return the cef_app_t pointer
 	 */
@@ -108,52 +349,572 @@ public class ResourceHandler {
 		return cefResourceHandler;
 	}
 
+	@SuppressWarnings({ "unused" }) // Called via JNI
+	private synchronized void cancel(final long self) {
+		cancelled = true;
+		if (response.publisher != null) {
+			// Stop the publisher, no further data will be read
+			response.publisher.close();
+		}
+	}
+
+	@SuppressWarnings({ "unused" }) // Called via JNI
+	private synchronized boolean released(final long self) {
+		if (timeout != null) {
+			timeout.cancel(false);
+			timeout = null;
+		}
+		if (series != null) {
+			final long now = System.nanoTime();
+			series.record((headersTime != 0 ? headersTime : now) - openTime,
+					(lastByteTime != 0 ? lastByteTime : now) - openTime,
+					bytesTransferred, getStatusCode());
+			series = null;
+		}
+
+		if (pendingRequest != null && !pendingRequest.isDone()) {
+			// The request handler is still running after CEF cancelled the
+			// request or it timed out, so the handler cannot be reused
+			return false;
+		}
+
+		if (response.responseChannel != null) {
+			try {
+				response.responseChannel.close();
+			} catch (final IOException e) {
+				// ignore
+			}
+		}
+		readGeneration++;
+		request.cefRequest = 0;
+		hostname = null;
+		requestHandler = null;
+		pendingRequest = null;
+		dataBuffer = null;
+		dataBufferAddress = 0;
+
+		if (poolSize.incrementAndGet() > ChromiumStatic
+				.getCEFConfiguration().ResourceHandlerPoolSize) {
+			// Pool is full, let the native side free the handler
+			poolSize.decrementAndGet();
+			return false;
+		}
+		pool.offer(this);
+		return true;
+	}
+
 	@SuppressWarnings({ "unused" }) // Called via JNI
 	private void get_response_headers(final long self, final long cef_response,
 			final long response_length, final long redirectUrl)
 			throws IOException {
-		response.cefResponse = cef_response;
-		
-		// Ensure mime type and a response is always set
-		response.setMimeType("text/plain");
-		response.setResponseData("");
+		headersTime = System.nanoTime();
+		if (timedOut) {
+			// The request handler may still be running, so do not touch the
+			// response it is writing to
+			synchronized (this) {
+				series = ChromiumStatic.getRequestMetrics()
+						.getSeries(hostname, null);
+			}
+			cef_response_t.cefswt_response_set_mime_type(cef_response,
+					"text/plain");
+			cef_response_t.cefswt_response_set_status_code(cef_response,
+					STATUS_GATEWAY_TIMEOUT);
+			remainingBytes = TIMEOUT_BODY.length;
+			ChromiumLib.cefswt_set_int64ptr(response_length,
+					TIMEOUT_BODY.length);
+			return;
+		}
+
+		// Wait for the request handler to finish. This never blocks, as CEF
+		// only requests the headers after the request has been handled
+		pendingRequest.join();
+		response.apply(cef_response);
+
+		// A length of -1 causes CEF to read until read() returns 0
+		remainingBytes = response.responseLength;
+		ChromiumLib.cefswt_set_int64ptr(response_length,
+				response.responseLength);
+	}
+
+	private static long advance(final ReadableByteChannel channel,
+			final long bytes) throws IOException {
+		if (channel instanceof final SeekableByteChannel seekable) {
+			// Seek without reading the skipped content
+			final long position = seekable.position();
+			final long target = Math.min(position + bytes, seekable.size());
+			seekable.position(target);
+			return target - position;
+		}
+
+		// Read and discard the skipped content
+		final ByteBuffer discard = ByteBuffer
+				.allocate((int) Math.min(bytes, 8192));
+		long skipped = 0;
+		while (skipped < bytes) {
+			discard.clear().limit((int) Math.min(bytes - skipped,
+					discard.capacity()));
+			final int read = channel.read(discard);
+			if (read < 0) {
+				break;
+			}
+			skipped += read;
+		}
+		return skipped;
+	}
+
+	private void applyCompression() {
+		final CEFConfiguration configuration = ChromiumStatic
+				.getCEFConfiguration();
+		final long length = response.responseLength;
+		if (!configuration.ResponseCompression
+				|| response.statusCode != 0 && response.statusCode != 200
+				|| length >= 0
+						&& length < configuration.ResponseCompressionThreshold
+				|| response.headers.containsKey("Content-Encoding")
+				|| !isCompressible(response.mimeType,
+						configuration.ResponseCompressionMimeTypes)) {
+			return;
+		}
+		// Ranges refer to the uncompressed content, so only compress
+		// complete responses
+		final String range = request.getHeader("Range");
+		if (range != null && !range.isBlank()) {
+			return;
+		}
+		final String encoding = CompressingChannel
+				.negotiate(request.getHeader("Accept-Encoding"));
+		if (encoding == null) {
+			return;
+		}
 
+		final String vary = response.headers.get("Vary");
+		response.setHeader("Vary", vary == null || vary.isBlank()
+				? "Accept-Encoding"
+				: vary + ", Accept-Encoding");
+		response.setHeader("Content-Encoding", encoding);
+		// The compressed length is only known after compressing. Keep a
+		// publisher, so reads still continue asynchronously
+		response.responseChannel = new CompressingChannel(
+				response.responseChannel, encoding);
+		response.responseLength = -1;
+	}
+
+	private static boolean isCompressible(final String mimeType,
+			final Set<String> mimeTypes) {
+		if (mimeType == null) {
+			return false;
+		}
+		// Ignore parameters like charset
+		final int parameters = mimeType.indexOf(';');
+		return mimeTypes.contains((parameters < 0 ? mimeType
+				: mimeType.substring(0, parameters)).trim()
+				.toLowerCase(Locale.ROOT));
+	}
+
+	private void applyRange() throws IOException {
+		final long length = response.responseLength;
+		if (length < 0 || response.statusCode != 0
+				&& response.statusCode != 200) {
+			// Ranges are only supported for successful responses of known
+			// length
+			return;
+		}
+		response.setHeader("Accept-Ranges", "bytes");
+
+		final ByteRange range = ByteRange.parse(request.getHeader("Range"),
+				length);
+		if (range == null) {
+			return;
+		}
+		if (range == ByteRange.UNSATISFIABLE) {
+			response.responseChannel.close();
+			response.setResponseData("");
+			response.setHeader("Content-Range", "bytes */" + length);
+			response.setStatus(416);
+			return;
+		}
+
+		// Position the channel at the start of the range
+		contentOffset = advance(response.responseChannel, range.getStart());
+		response.responseLength = range.getLength();
+		response.setHeader("Content-Range", "bytes " + range.getStart() + "-"
+				+ range.getEnd() + "/" + length);
+		response.setStatus(206);
+	}
+
+	private void handleRequest() {
+		response.reset();
 		try {
-			requestHandler.onRequest(request, response);
+			final ResponseCache cache = ChromiumStatic.getSchemeHandlerFactory()
+					.getResponseCache();
+			final ResponseCache.Entry cached = cache != null
+					? cache.get(requestHandler, request)
+					: null;
+			if (cached != null) {
+				response.load(cached);
+				applyCompression();
+				applyRange();
+			} else {
+				final ResponseValidator validator = requestHandler
+						.getValidator(request);
+				if (validator != null) {
+					validator.apply(response);
+				}
+				if (validator != null && validator.isNotModified(request)) {
+					// The browser's copy is still valid
+					response.setStatus(304);
+				} else {
+					requestHandler.onRequest(request, response);
+					if (cache != null) {
+						storeInCache(cache);
+					}
+					applyCompression();
+					applyRange();
+				}
+			}
 		} catch (final Exception e) {
-			response.setMimeType("text/plain");
+			contentOffset = 0;
+			response.reset();
 			response.setResponseData("Internal server error");
 			response.setStatus(500);
 		}
 
-		ChromiumLib.cefswt_set_intptr(response_length,
-				response.responseStream.available());
+		// The route matched while dispatching the request, if any
+		final RequestMetrics.Series requestSeries = ChromiumStatic
+				.getRequestMetrics().getSeries(hostname,
+						request.match != null ? request.match.getRoute()
+								: null);
+		synchronized (this) {
+			if (!timedOut) {
+				series = requestSeries;
+			}
+			// The response is complete and must no longer be replaced by a
+			// timeout
+			handling = false;
+		}
+
+		// Release the request body, if it has not been fully read
+		try {
+			request.reset();
+		} catch (final IOException e) {
+			// ignore
+		}
+	}
+
+	/**
+	 * Runs the request handler on the current thread
+	 */
+	private void runRequest() {
+		synchronized (this) {
+			handlerThread = Thread.currentThread();
+		}
+		try {
+			if (!timedOut) {
+				handleRequest();
+			}
+		} finally {
+			synchronized (this) {
+				handlerThread = null;
+				handling = false;
+				if (timeout != null) {
+					timeout.cancel(false);
+					timeout = null;
+				}
+			}
+			// Clear an interrupt caused by the timeout, so that it does not
+			// affect the next task of the thread
+			Thread.interrupted();
+		}
+	}
+
+	/**
+	 * Marks that CEF is notified about the response headers
+	 *
+	 * @return false if CEF has already been notified
+	 */
+	private synchronized boolean markContinued() {
+		if (continued) {
+			return false;
+		}
+		continued = true;
+		return true;
+	}
+
+	/**
+	 * Answers the request with 504 Gateway Timeout, if the request handler
+	 * is still running
+	 *
+	 * @param generation
+	 *            the request generation
+	 * @param callback
+	 *            the cef_callback_t to continue the request or 0, if the
+	 *            request is handled synchronously
+	 */
+	private void timeOut(final long generation, final long callback) {
+		final String host;
+		synchronized (this) {
+			if (!handling || timedOut || generation != readGeneration) {
+				return;
+			}
+			timedOut = true;
+			timeoutChannel = new ByteBufferChannel(
+					ByteBuffer.wrap(TIMEOUT_BODY));
+			if (handlerThread != null) {
+				handlerThread.interrupt();
+			}
+			host = hostname;
+		}
+		ChromiumStatic.getRequestMetrics().getSeries(host, null)
+				.recordTimeout();
+		if (callback != 0 && !cancelled && markContinued()) {
+			cef_callback_t.cefswt_callback_cont(callback);
+		}
+	}
+
+	private ReadableByteChannel getContent() {
+		return timedOut ? timeoutChannel : response.responseChannel;
+	}
+
+	private int getStatusCode() {
+		if (timedOut) {
+			return STATUS_GATEWAY_TIMEOUT;
+		}
+		return response.statusCode != 0 ? response.statusCode : 200;
+	}
+
+	private void storeInCache(final ResponseCache cache) throws IOException {
+		final long ttl = cache.getTimeToLive(request, response.statusCode,
+				response.headers);
+		final long limit = cache.getMaxEntrySize();
+		final long length = response.responseLength;
+		if (ttl <= 0 || length > limit || response.publisher != null) {
+			// Streamed responses are never complete in advance
+			return;
+		}
+
+		// Buffer the response body, but not more than the cache accepts
+		final ReadableByteChannel channel = response.responseChannel;
+		ByteBuffer body = ByteBuffer.allocate(
+				(int) (length >= 0 ? length : Math.min(8192, limit + 1)));
+		while (true) {
+			if (!body.hasRemaining()) {
+				if (length >= 0 || body.capacity() > limit) {
+					break;
+				}
+				body = ByteBuffer.allocate(
+						(int) Math.min(body.capacity() * 2L, limit + 1))
+						.put(body.flip());
+			}
+			if (channel.read(body) < 0) {
+				break;
+			}
+		}
+		body.flip();
+
+		if (body.remaining() > limit) {
+			// Too large to be cached, return the buffered data followed by
+			// the remaining data
+			final InputStream buffered = Channels
+					.newInputStream(new ByteBufferChannel(body));
+			response.setResponseData(new SequenceInputStream(buffered,
+					Channels.newInputStream(channel)), -1);
+			return;
+		}
+		channel.close();
+		cache.put(requestHandler, request, ttl, response.mimeType,
+				response.headers, body);
+		response.setResponseData(new ByteBufferChannel(body),
+				body.remaining());
 	}
 
 	@SuppressWarnings({ "unused" }) // Called via JNI
 	private int open(final long self, final long cef_request,
 			final long handle_request_ptr, final long callback) {
-		// Immediately handle the request
-		ChromiumLib.cefswt_set_intptr(handle_request_ptr, 1);
+		openTime = System.nanoTime();
+		headersTime = 0;
+		lastByteTime = 0;
+		bytesTransferred = 0;
 		request.cefRequest = cef_request;
+		cancelled = false;
+		contentOffset = 0;
+		skippedBytes = 0;
+		remainingBytes = -1;
+		final long generation;
+		synchronized (this) {
+			continued = false;
+			handling = true;
+			timedOut = false;
+			timeoutChannel = null;
+			generation = readGeneration;
+		}
+
+		final CEFConfiguration configuration = ChromiumStatic
+				.getCEFConfiguration();
+		final Duration limit = configuration.RequestTimeouts
+				.getOrDefault(hostname, configuration.RequestTimeout);
+		final Executor executor = configuration.RequestExecutor;
+		if (executor != null) {
+			try {
+				// Handle the request in the background and continue
+				// processing via the callback once the response is ready
+				pendingRequest = CompletableFuture
+						.runAsync(this::runRequest, executor)
+						.whenComplete((result, e) -> {
+							if (cancelled || !markContinued()) {
+								return;
+							}
+							if (e != null) {
+								// The handler failed without providing a
+								// response (e.g. with an Error)
+								cef_callback_t
+										.cefswt_callback_cancel(callback);
+							} else {
+								cef_callback_t.cefswt_callback_cont(callback);
+							}
+						});
+				scheduleTimeout(limit, generation, callback);
+				ChromiumLib.cefswt_set_intptr(handle_request_ptr, 0);
+				return 1;
+			} catch (final RejectedExecutionException e) {
+				// Executor is not accepting tasks, handle the request directly
+			}
+		}
+
+		// Immediately handle the request. On timeout the handler is
+		// interrupted to unblock the IO thread
+		scheduleTimeout(limit, generation, 0);
+		runRequest();
+		pendingRequest = CompletableFuture.completedFuture(null);
+		ChromiumLib.cefswt_set_intptr(handle_request_ptr, 1);
 		return 1;
 	}
 
+	private synchronized void scheduleTimeout(final Duration limit,
+			final long generation, final long callback) {
+		if (limit == null || limit.isZero() || limit.isNegative()
+				|| !handling) {
+			return;
+		}
+		timeout = timeouts.schedule(() -> timeOut(generation, callback),
+				limit.toNanos(), TimeUnit.NANOSECONDS);
+	}
+
 	@SuppressWarnings({ "unused" }) // Called via JNI
 	private int read(final long self, final long data_out,
 			final int bytes_to_read, final long bytes_read_ptr,
-			final long callback) throws IOException {
-		// Read bytes into the CEF response
-		final byte[] bytes = response.responseStream.readNBytes(bytes_to_read);
-
-		ChromiumLib.cefswt_set_intptr(bytes_read_ptr, bytes.length);
-		if (bytes.length > 0) {
-			cef_download_item_t.cefswt_copy_bytes(data_out, bytes,
-					bytes.length);
+			final long callback) {
+		// Read bytes directly into the CEF response buffer
+		final ByteBuffer buffer = getDataBuffer(data_out, bytes_to_read);
+		if (remainingBytes >= 0 && remainingBytes < bytes_to_read) {
+			buffer.limit((int) remainingBytes);
+		}
+		final int bytesRead = readResponse(buffer, callback, readGeneration);
+		if (bytesRead == READ_PENDING) {
+			// Continue via the callback once data is available
+			ChromiumLib.cefswt_set_intptr(bytes_read_ptr, 0);
 			return 1;
 		}
-		// No further bytes, close the input stream
-		response.responseStream.close();
-		return 0;
+		ChromiumLib.cefswt_set_intptr(bytes_read_ptr, bytesRead);
+		return bytesRead > 0 ? 1 : 0;
+	}
+
+	/**
+	 * Reads the response data into a buffer
+	 *
+	 * @param buffer
+	 *            the CEF response buffer
+	 * @param callback
+	 *            the cef_resource_read_callback_t to continue a deferred read
+	 * @param generation
+	 *            the request generation
+	 * @return the number of bytes read, 0 if the response is complete,
+	 *         {@link #ERR_FAILED} or {@link #READ_PENDING}, if the read
+	 *         continues once the publisher provides further data
+	 */
+	private int readResponse(final ByteBuffer buffer, final long callback,
+			final long generation) {
+		try {
+			final ReadableByteChannel content = getContent();
+			int bytesRead = buffer.hasRemaining() ? 0 : -1;
+			while (bytesRead == 0) {
+				bytesRead = content.read(buffer);
+				if (bytesRead == 0 && !timedOut && response.publisher != null
+						&& response.publisher.awaitData(() -> continueRead(
+								buffer, callback, generation))) {
+					return READ_PENDING;
+				}
+			}
+
+			if (bytesRead > 0) {
+				if (remainingBytes > 0) {
+					remainingBytes -= bytesRead;
+				}
+				bytesTransferred += bytesRead;
+				return bytesRead;
+			}
+			// No further bytes, close the channel
+			lastByteTime = System.nanoTime();
+			content.close();
+			return 0;
+		} catch (final IOException e) {
+			lastByteTime = System.nanoTime();
+			return ERR_FAILED;
+		}
+	}
+
+	private synchronized void continueRead(final ByteBuffer buffer,
+			final long callback, final long generation) {
+		// The buffer is only valid until the request has been cancelled
+		if (cancelled || generation != readGeneration) {
+			return;
+		}
+		final int bytesRead = readResponse(buffer, callback, generation);
+		if (bytesRead != READ_PENDING) {
+			cef_resource_read_callback_t
+					.cefswt_resource_read_callback_cont(callback, bytesRead);
+		}
+	}
+
+	@SuppressWarnings({ "unused" }) // Called via JNI
+	private int skip(final long self, final long bytes_to_skip,
+			final long bytes_skipped_ptr, final long callback) {
+		// Content up to the start of a requested range has already been
+		// skipped while handling the request, so only advance the channel
+		// if CEF skips beyond it
+		final long target = skippedBytes + bytes_to_skip;
+		try {
+			if (target > contentOffset) {
+				final long advanced = advance(getContent(),
+						target - contentOffset);
+				contentOffset += advanced;
+				if (remainingBytes > 0) {
+					remainingBytes = Math.max(0, remainingBytes - advanced);
+				}
+			}
+		} catch (final IOException e) {
+			ChromiumLib.cefswt_set_int64ptr(bytes_skipped_ptr, ERR_FAILED);
+			return 0;
+		}
+
+		final long skipped = Math.min(target, contentOffset) - skippedBytes;
+		skippedBytes += skipped;
+		if (skipped <= 0 && bytes_to_skip > 0) {
+			// Skipped beyond the end of the content
+			ChromiumLib.cefswt_set_int64ptr(bytes_skipped_ptr, ERR_FAILED);
+			return 0;
+		}
+		ChromiumLib.cefswt_set_int64ptr(bytes_skipped_ptr, skipped);
+		return 1;
+	}
+
+	private ByteBuffer getDataBuffer(final long data_out, final int length) {
+		// CEF usually passes the same output buffer for every read, so only
+		// wrap it again if it has changed
+		if (dataBuffer == null || dataBufferAddress != data_out
+				|| dataBuffer.capacity() < length) {
+			dataBuffer = ChromiumLib.cefswt_direct_buffer(data_out, length);
+			dataBufferAddress = data_out;
+		}
+		return dataBuffer.clear().limit(length);
 	}
 }
@@ -0,0 +1,335 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef.handlers;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.set.browser.RequestHandler;
+import org.eclipse.set.browser.RequestHandler.Request;
+
+/**
+ * In-memory cache for responses of custom hostnames
+ *
+ * Only GET responses with status 200 which explicitly allow caching via
+ * Cache-Control: max-age are stored. Entries are keyed by the request handler
+ * which generated them, as the same URL may be handled differently by the
+ * handlers of different browsers, and by method, URL and the values of the
+ * request headers named in the response's Vary header. The cache
+ * is bounded by the total size of the cached bodies and evicts the least
+ * recently used entries first. Entries expire after their max-age, but no
+ * later than the configured time to live.
+ */
+public class ResponseCache {
+	/**
+	 * A cached response
+	 */
+	static final class Entry {
+		final ByteBuffer body;
+		final long expires;
+		final RequestHandler handler;
+		final Map<String, String> headers;
+		final String key;
+		final String mimeType;
+		final String primaryKey;
+
+		Entry(final RequestHandler handler, final String primaryKey,
+				final String key, final String mimeType,
+				final Map<String, String> headers, final ByteBuffer body,
+				final long expires) {
+			this.handler = handler;
+			this.primaryKey = primaryKey;
+			this.key = key;
+			this.mimeType = mimeType;
+			this.headers = headers;
+			this.body = body.asReadOnlyBuffer();
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * Header names listed in the Vary header of a URL and the number of
+	 * entries cached for the URL
+	 */
+	private static final class Variants {
+		int entries;
+		String[] vary;
+
+		Variants(final String[] vary) {
+			this.vary = vary;
+		}
+	}
+
+	private static final String CACHE_CONTROL = "Cache-Control";
+	private static final String VARY = "Vary";
+
+	private static String getHeaderValue(final Map<String, String> headers,
+			final String name) {
+		return headers.getOrDefault(name, "");
+	}
+
+	private static String getPrimaryKey(final RequestHandler handler,
+			final Request request) {
+		// Entries of handlers with the same identity hash code are told apart
+		// by Entry.handler
+		return Integer.toHexString(System.identityHashCode(handler)) + " "
+				+ request.getMethod() + " " + request.getURL();
+	}
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(
+			16, 0.75f, true);
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final long maxEntrySize;
+	private final long maxSize;
+	private final LongAdder misses = new LongAdder();
+	private long size;
+	private final long timeToLive;
+	// Variants per URL, removed along with the last entry of the URL
+	private final Map<String, Variants> variants = new HashMap<>();
+
+	/**
+	 * @param maxSize
+	 *            the maximum total size of cached response bodies in bytes
+	 * @param timeToLive
+	 *            the maximum time to keep a response
+	 */
+	public ResponseCache(final long maxSize, final Duration timeToLive) {
+		this.maxSize = maxSize;
+		// A single entry may use up to a quarter of the cache
+		this.maxEntrySize = maxSize / 4;
+		this.timeToLive = timeToLive.toNanos();
+	}
+
+	/**
+	 * Removes all entries
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		variants.clear();
+		size = 0;
+	}
+
+	/**
+	 * @return the number of entries evicted to free space
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return the number of requests answered from the cache
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of cacheable requests not found in the cache
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the total size of all cached response bodies in bytes
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+	/**
+	 * @param handler
+	 *            the request handler of the request
+	 * @param request
+	 *            the request
+	 * @return the cached response or null
+	 */
+	Entry get(final RequestHandler handler, final Request request) {
+		if (!"GET".equals(request.getMethod())) {
+			return null;
+		}
+		final String primaryKey = getPrimaryKey(handler, request);
+		synchronized (this) {
+			final Variants variant = variants.get(primaryKey);
+			final Entry entry = variant != null
+					? entries.get(getKey(primaryKey, variant.vary, request))
+					: null;
+			if (entry == null || entry.handler != handler) {
+				misses.increment();
+				return null;
+			}
+			if (entry.expires - System.nanoTime() <= 0) {
+				remove(entry);
+				misses.increment();
+				return null;
+			}
+			hits.increment();
+			return entry;
+		}
+	}
+
+	/**
+	 * @return the maximum size of a single cached response body
+	 */
+	long getMaxEntrySize() {
+		return maxEntrySize;
+	}
+
+	/**
+	 * Determines how long a response may be cached
+	 *
+	 * @param request
+	 *            the request
+	 * @param statusCode
+	 *            the response status code (0 if unset)
+	 * @param headers
+	 *            the response headers
+	 * @return the time to live in nanoseconds or 0 if the response must not
+	 *         be cached
+	 */
+	long getTimeToLive(final Request request, final int statusCode,
+			final Map<String, String> headers) {
+		if (!"GET".equals(request.getMethod())
+				|| statusCode != 0 && statusCode != 200
+				|| getVary(headers) == null) {
+			return 0;
+		}
+
+		long maxAge = 0;
+		for (final String directive : getHeaderValue(headers, CACHE_CONTROL)
+				.toLowerCase(Locale.ROOT)
+				.split(",")) {
+			final String trimmed = directive.trim();
+			if (trimmed.equals("no-store") || trimmed.equals("no-cache")) {
+				return 0;
+			}
+			if (trimmed.startsWith("max-age=")) {
+				try {
+					maxAge = Long.parseLong(trimmed.substring(8).trim());
+				} catch (final NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		if (maxAge <= 0) {
+			return 0;
+		}
+		return Math.min(Duration.ofSeconds(maxAge).toNanos(), timeToLive);
+	}
+
+	/**
+	 * Stores a response
+	 *
+	 * @param handler
+	 *            the request handler which generated the response
+	 * @param request
+	 *            the request
+	 * @param ttl
+	 *            the time to live in nanoseconds
+	 * @param mimeType
+	 *            the response mime type
+	 * @param headers
+	 *            the response headers
+	 * @param body
+	 *            the response body
+	 */
+	void put(final RequestHandler handler, final Request request,
+			final long ttl, final String mimeType,
+			final Map<String, String> headers, final ByteBuffer body) {
+		final String[] vary = getVary(headers);
+		if (body.remaining() > maxEntrySize || vary == null) {
+			return;
+		}
+		final String primaryKey = getPrimaryKey(handler, request);
+		final Entry entry = new Entry(handler, primaryKey,
+				getKey(primaryKey, vary, request), mimeType,
+				Map.copyOf(headers), body, System.nanoTime() + ttl);
+		synchronized (this) {
+			// Entries stored with a previous Vary header remain counted until
+			// they are evicted
+			final Variants variant = variants.computeIfAbsent(primaryKey,
+					k -> new Variants(vary));
+			variant.vary = vary;
+			final Entry previous = entries.put(entry.key, entry);
+			if (previous != null) {
+				size -= previous.body.remaining();
+			} else {
+				variant.entries++;
+			}
+			size += entry.body.remaining();
+
+			// Evict least recently used entries
+			final Iterator<Entry> iterator = entries.values().iterator();
+			while (size > maxSize && iterator.hasNext()) {
+				final Entry eldest = iterator.next();
+				iterator.remove();
+				release(eldest);
+				evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * @param headers
+	 *            the response headers
+	 * @return the header names listed in the Vary header or null for
+	 *         <code>Vary: *</code>, which makes the response uncacheable
+	 */
+	private static String[] getVary(final Map<String, String> headers) {
+		final String value = getHeaderValue(headers, VARY);
+		if (value.isBlank()) {
+			return new String[0];
+		}
+		final String[] vary = value.trim().split("\\s*,\\s*");
+		for (final String name : vary) {
+			if (name.equals("*")) {
+				return null;
+			}
+		}
+		return vary;
+	}
+
+	private static String getKey(final String primaryKey, final String[] vary,
+			final Request request) {
+		if (vary.length == 0) {
+			return primaryKey;
+		}
+		final StringBuilder key = new StringBuilder(primaryKey);
+		// Only getHeader is provided by every request, e.g. by wrappers
+		for (final String name : vary) {
+			key.append('\n').append(name.toLowerCase(Locale.ROOT)).append(':');
+			final String value = request.getHeader(name);
+			if (value != null) {
+				key.append(value);
+			}
+		}
+		return key.toString();
+	}
+
+	private void release(final Entry entry) {
+		size -= entry.body.remaining();
+		final Variants variant = variants.get(entry.primaryKey);
+		if (variant != null && --variant.entries == 0) {
+			variants.remove(entry.primaryKey);
+		}
+	}
+
+	private void remove(final Entry entry) {
+		entries.remove(entry.key);
+		release(entry);
+	}
+}
@@ -8,10 +8,13 @@
  */
 package org.eclipse.set.browser.cef.handlers;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.set.browser.cef.Chromium;
+import org.eclipse.set.browser.cef.CEFConfiguration.SCHEME_OPTION;
+import org.eclipse.set.browser.cef.ChromiumStatic;
 import org.eclipse.set.browser.lib.ChromiumLib;
 import org.eclipse.set.browser.lib.cef_browser_t;
 
@@ -19,6 +22,20 @@ import org.eclipse.set.browser.lib.cef_browser_t;
  * Java Handler for cef_scheme_handler_factory_t
  */
 public class SchemeHandlerFactory {
+	/**
+	 * @return the custom schemes hostnames are registered for. CEF ignores
+	 *         the hostname of non-standard schemes, so only standard schemes
+	 *         are served per hostname
+	 */
+	private static List<String> getStandardSchemes() {
+		return ChromiumStatic.getCEFConfiguration().CustomSchemes.entrySet()
+				.stream()
+				.filter(scheme -> scheme.getValue()
+						.contains(SCHEME_OPTION.STANDARD))
+				.map(Map.Entry::getKey)
+				.toList();
+	}
+
 	private final Map<Integer, Chromium> browsers;
 
 	private final long cefSchemeHandlerFactory;
@@ -31,12 +48,16 @@ public class SchemeHandlerFactory {
 	 *            the browser instance to use
 	 */
 	public SchemeHandlerFactory(final String name, final Chromium browser) {
-		this.browsers = new HashMap<>();
+		this.browsers = new ConcurrentHashMap<>();
 
 		this.name = name;
 		this.cefSchemeHandlerFactory = ChromiumLib
 				.allocate_cef_scheme_handler_factory_t(this);
 		ChromiumLib.cefswt_register_http_host(name, cefSchemeHandlerFactory);
+		for (final String scheme : getStandardSchemes()) {
+			ChromiumLib.cefswt_register_scheme_handler(scheme, name,
+					cefSchemeHandlerFactory);
+		}
 		addBrowser(browser);
 	}
 
@@ -54,7 +75,13 @@ public class SchemeHandlerFactory {
 	 */
 	public void dispose() {
 		ChromiumLib.cefswt_register_http_host(name, 0);
-		ChromiumLib.deallocate_cef_scheme_handler_factory_t(
+		for (final String scheme : getStandardSchemes()) {
+			ChromiumLib.cefswt_register_scheme_handler(scheme, name, 0);
+		}
+		// CEF drops the registrations asynchronously on its IO thread and may
+		// still call create(), so the factory is only freed once CEF has
+		// released it (see released)
+		ChromiumLib.cefswt_release_scheme_handler_factory(
 				cefSchemeHandlerFactory);
 	}
 
@@ -96,4 +123,11 @@ public class SchemeHandlerFactory {
 		return 0;
 	}
 
+	@SuppressWarnings({ "static-method", "unused" }) // Called via JNI
+	private boolean released(final long self) {
+		// Only the last reference is released after dispose, so free the
+		// factory
+		return false;
+	}
+
 }
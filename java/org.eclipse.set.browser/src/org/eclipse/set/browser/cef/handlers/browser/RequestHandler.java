@@ -52,10 +52,28 @@ public class RequestHandler {
 				callback);
 	}
 
+	@SuppressWarnings("unused") // Called from JNI
+	long get_resource_request_handler(final long self, final long id,
+			final long frame, final long request, final int is_navigation,
+			final int is_download, final long request_initiator,
+			final long disable_default_handling) {
+		// Only intercept requests matching a rule, so that all other requests
+		// are loaded without further calls into Java
+		final ResourceRequestHandler handler = ResourceRequestHandler
+				.create(browser, request);
+		return handler != null ? handler.get() : 0;
+	}
+
 	@SuppressWarnings("unused") // Called from JNI
 	int on_before_browse(final long self, final long id, final long frame,
 			final long request, final int user_gesture, final int is_redirect) {
 		return browser.on_before_browse(id, frame, request);
 	}
 
+	@SuppressWarnings("unused") // Called from JNI
+	void on_render_process_terminated(final long self, final long id,
+			final int status) {
+		browser.on_render_process_terminated();
+	}
+
 }
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+package org.eclipse.set.browser.cef.handlers.browser;
+
+import org.eclipse.set.browser.ResourceInterceptor;
+import org.eclipse.set.browser.ResourceInterceptor.Decision;
+import org.eclipse.set.browser.cef.Chromium;
+import org.eclipse.set.browser.cef.handlers.ResourceHandler;
+import org.eclipse.set.browser.lib.ChromiumLib;
+import org.eclipse.set.browser.lib.cef_request_t;
+
+/**
+ * Java Handler for cef_resource_request_handler_t
+ *
+ * Applies the browser's {@link ResourceInterceptor} to a single request. The
+ * interceptor's rules are matched once, when the handler is created, and the
+ * handler is only returned to CEF for requests matching a rule, so other
+ * requests are loaded without further calls into Java. The native structure
+ * is freed once CEF releases it.
+ */
+public class ResourceRequestHandler {
+	// cef_return_value_t
+	private static final int RV_CANCEL = 0;
+	private static final int RV_CONTINUE = 1;
+
+	/**
+	 * @param browser
+	 *            the browser
+	 * @param request
+	 *            the cef_request_t pointer
+	 * @return the handler applying the interceptor's decision for the
+	 *         request or null, if the request should be loaded normally
+	 */
+	static ResourceRequestHandler create(final Chromium browser,
+			final long request) {
+		final ResourceInterceptor interceptor = browser
+				.getResourceInterceptor();
+		if (interceptor == null) {
+			return null;
+		}
+		final Decision decision = interceptor
+				.match(cef_request_t.cefswt_request_get_url(request));
+		if (decision == null
+				|| decision.getAction() == ResourceInterceptor.Action.ALLOW) {
+			return null;
+		}
+		return new ResourceRequestHandler(decision);
+	}
+
+	private final long cefResourceRequestHandler = ChromiumLib
+			.allocate_cef_resource_request_handler_t(this);
+	private final Decision decision;
+
+	private ResourceRequestHandler(final Decision decision) {
+		this.decision = decision;
+	}
+
+	/**
+	 * @return the cef_resource_request_handler_t pointer
+	 */
+	public long get() {
+		return cefResourceRequestHandler;
+	}
+
+	@SuppressWarnings({ "static-method", "unused" }) // Called via JNI
+	private boolean released(final long self) {
+		// Handlers are created per request, so free the native structure
+		return false;
+	}
+
+	@SuppressWarnings("unused") // Called from JNI
+	long get_resource_handler(final long self, final long browser_id,
+			final long frame, final long request) {
+		if (decision.getAction() != ResourceInterceptor.Action.REPLACE) {
+			return 0;
+		}
+		return ResourceHandler
+				.acquire(decision.getHost(), decision.getHandler()).get();
+	}
+
+	@SuppressWarnings("unused") // Called from JNI
+	int on_before_resource_load(final long self, final long browser_id,
+			final long frame, final long request, final long callback) {
+		switch (decision.getAction()) {
+		case BLOCK:
+			return RV_CANCEL;
+		case REDIRECT:
+			// Changing the URL is treated as a redirect by CEF
+			cef_request_t.cefswt_request_set_url(request,
+					decision.getRedirectURL());
+			return RV_CONTINUE;
+		default:
+			return RV_CONTINUE;
+		}
+	}
+}
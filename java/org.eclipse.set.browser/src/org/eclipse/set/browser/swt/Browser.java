@@ -558,11 +558,15 @@ public class Browser extends Composite {
 	 * <li>javascript boolean -&gt; <code>java.lang.Boolean</code></li>
 	 * <li>javascript array whose elements are all of supported types -&gt;
 	 * <code>java.lang.Object[]</code></li>
+	 * <li>javascript ArrayBuffer -&gt; <code>byte[]</code></li>
+	 * <li>javascript object whose properties are all of supported types -&gt;
+	 * <code>java.util.Map&lt;String, Object&gt;</code> (properties holding
+	 * functions are omitted)</li>
 	 * </ul>
 	 *
 	 * An <code>SWTException</code> is thrown if the return value has an
-	 * unsupported type, or if evaluating the script causes a javascript error
-	 * to be thrown.
+	 * unsupported type, is cyclic or nested too deeply, or if evaluating the
+	 * script causes a javascript error to be thrown.
 	 *
 	 * @param script
 	 *            the script with javascript commands
@@ -577,7 +581,12 @@ public class Browser extends Composite {
 	 * @exception SWTException
 	 *                <ul>
 	 *                <li>ERROR_FAILED_EVALUATE when the script evaluation
-	 *                causes a javascript error to be thrown</li>
+	 *                causes a javascript error to be thrown, does not
+	 *                complete within the
+	 *                {@link org.eclipse.set.browser.cef.CEFConfiguration#ScriptTimeout},
+	 *                if one is configured, or when called from a
+	 *                {@link BrowserFunction}. Use <code>evaluateAsync</code>
+	 *                to evaluate scripts from a BrowserFunction</li>
 	 *                <li>ERROR_INVALID_RETURN_VALUE when the script returns a
 	 *                value of unsupported type</li>
 	 *                <li>ERROR_THREAD_INVALID_ACCESS when called from the wrong
@@ -622,10 +631,14 @@ public class Browser extends Composite {
 	 * <li>javascript boolean -&gt; <code>java.lang.Boolean</code></li>
 	 * <li>javascript array whose elements are all of supported types -&gt;
 	 * <code>java.lang.Object[]</code></li>
+	 * <li>javascript ArrayBuffer -&gt; <code>byte[]</code></li>
+	 * <li>javascript object whose properties are all of supported types -&gt;
+	 * <code>java.util.Map&lt;String, Object&gt;</code> (properties holding
+	 * functions are omitted)</li>
 	 * </ul>
 	 * An <code>SWTException</code> is thrown if the return value has an
-	 * unsupported type, or if evaluating the script causes a javascript error
-	 * to be thrown.
+	 * unsupported type, is cyclic or nested too deeply, or if evaluating the
+	 * script causes a javascript error to be thrown.
 	 *
 	 * @param script
 	 *            the script with javascript commands
@@ -643,7 +656,12 @@ public class Browser extends Composite {
 	 * @exception SWTException
 	 *                <ul>
 	 *                <li>ERROR_FAILED_EVALUATE when the script evaluation
-	 *                causes a javascript error to be thrown</li>
+	 *                causes a javascript error to be thrown, does not
+	 *                complete within the
+	 *                {@link org.eclipse.set.browser.cef.CEFConfiguration#ScriptTimeout},
+	 *                if one is configured, or when called from a
+	 *                {@link BrowserFunction}. Use <code>evaluateAsync</code>
+	 *                to evaluate scripts from a BrowserFunction</li>
 	 *                <li>ERROR_INVALID_RETURN_VALUE when the script returns a
 	 *                value of unsupported type</li>
 	 *                <li>ERROR_THREAD_INVALID_ACCESS when called from the wrong
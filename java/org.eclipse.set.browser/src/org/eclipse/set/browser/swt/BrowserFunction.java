@@ -201,7 +201,10 @@ public class BrowserFunction {
 	 * -&gt; <code>java.lang.Double</code> javascript string -&gt;
 	 * <code>java.lang.String</code> javascript boolean -&gt;
 	 * <code>java.lang.Boolean</code> javascript array whose elements are all of
-	 * supported types -&gt; <code>java.lang.Object[]</code>
+	 * supported types -&gt; <code>java.lang.Object[]</code> javascript
+	 * ArrayBuffer -&gt; <code>byte[]</code> javascript object whose properties
+	 * are all of supported types -&gt;
+	 * <code>java.util.Map&lt;String, Object&gt;</code>
 	 *
 	 * If any of the javascript arguments are of unsupported types then the
 	 * function invocation will fail and this method will not be called.
@@ -210,7 +213,11 @@ public class BrowserFunction {
 	 * the javascript caller. Note that <code>null</code> values are converted
 	 * to javascript's <code>null</code> value (not <code>undefined</code>), and
 	 * instances of any <code>java.lang.Number</code> subclass will be converted
-	 * to a javascript number.
+	 * to a javascript number. <code>byte[]</code> and
+	 * <code>java.nio.ByteBuffer</code> values are converted to an ArrayBuffer,
+	 * <code>java.util.Map</code>s and records to javascript objects.
+	 * If this method throws an exception, it is raised as an exception in the
+	 * javascript caller.
 	 *
 	 * @param arguments
 	 *            the javascript arguments converted to java equivalents
@@ -140,6 +140,7 @@ impl bindgen::callbacks::ParseCallbacks for ToJavaCallbacks {
             "_cef_string_visitor_t",
             "_cef_cookie_visitor_t",
             "_cef_resource_handler_t",
+            "_cef_resource_request_handler_t",
             "_cef_scheme_handler_factory_t",
         ]
         .contains(&name)
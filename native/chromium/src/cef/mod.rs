@@ -7550,7 +7550,7 @@ pub struct _cef_response_filter_t {
 }
 #[doc = "\n Implement this structure to handle events related to browser requests. The\n functions of this structure will be called on the IO thread unless otherwise\n indicated.\n"]
 #[repr(C)]
-#[derive(Debug, Copy, Clone)]
+#[derive(Debug, Copy, Clone, JNICEFCallback)]
 pub struct _cef_resource_request_handler_t {
     #[doc = "\n Base structure.\n"]
     pub base: cef_base_ref_counted_t,
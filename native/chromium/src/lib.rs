@@ -11,6 +11,7 @@ pub mod utils;
 
 use chromium_jni_utils::FromJava;
 use chromium_jni_utils::FromJavaMember;
+use chromium_jni_utils::FromJavaValue;
 use jni::objects::JObject;
 use jni::objects::JValue;
 use jni::JNIEnv;
@@ -137,3 +138,20 @@ impl<'a> ToJava<'a> for cef::cef_preferences_type_t {
         JValue::Int(unsafe { std::mem::transmute(value) })
     }
 }
+
+impl<'a> ToJava<'a> for cef::cef_urlrequest_status_t {
+    fn to_java(_env: JNIEnv, value: Self) -> JValue<'a> {
+        JValue::Int(unsafe { std::mem::transmute(value) })
+    }
+}
+
+impl FromJavaValue for cef::cef_return_value_t {
+    fn from_java_value(env: JNIEnv, object: JValue) -> Self {
+        let value: i32 = FromJavaValue::from_java_value(env, object);
+        match value {
+            0 => cef::cef_return_value_t::RV_CANCEL,
+            2 => cef::cef_return_value_t::RV_CONTINUE_ASYNC,
+            _ => cef::cef_return_value_t::RV_CONTINUE,
+        }
+    }
+}
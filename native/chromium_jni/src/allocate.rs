@@ -6,13 +6,17 @@
  * which accompanies this distribution, and is available at
  * http://www.eclipse.org/legal/epl-v20.html
  */
+use chromium::cef::_cef_base_ref_counted_t;
 use chromium_jni_macro::jni_name;
 use chromium_jni_utils::JNICEFCallback;
 use chromium_jni_utils::JNIWrapperType;
 use jni::objects::JClass;
 use jni::objects::JObject;
+use jni::objects::JValue;
 use jni::sys::jlong;
 use jni::JNIEnv;
+use std::os::raw::c_int;
+use std::sync::atomic::{fence, AtomicUsize, Ordering};
 
 /// Implements a JNI function allocate_[typename] which allocates a type on the heap and returns its
 /// address. Must be freed manually (via jni_deallocate)!
@@ -49,6 +53,94 @@ macro_rules! jni_structure {
     };
 }
 
+/// A CEF structure with an atomic reference count
+///
+/// CEF expects structures returned from callbacks to carry a reference for
+/// the caller, so the count starts at one. Once CEF releases the last
+/// reference, `released(long)` is called on the associated Java object. If it
+/// returns false, the structure is freed. Otherwise the Java object keeps the
+/// structure for reuse with its count reset to one.
+#[repr(C)]
+pub struct RefCounted<T> {
+    pub wrapper: JNIWrapperType<T>,
+    pub count: AtomicUsize,
+}
+
+unsafe extern "C" fn ref_counted_add_ref<T>(base: *mut _cef_base_ref_counted_t) {
+    let object = base as *mut RefCounted<T>;
+    (*object).count.fetch_add(1, Ordering::Relaxed);
+}
+
+unsafe extern "C" fn ref_counted_release<T>(base: *mut _cef_base_ref_counted_t) -> c_int {
+    let object = base as *mut RefCounted<T>;
+    if (*object).count.fetch_sub(1, Ordering::Release) != 1 {
+        return 0;
+    }
+    fence(Ordering::Acquire);
+    // Restore the reference for the next caller before the Java object may
+    // hand out the structure again
+    (*object).count.store(1, Ordering::Relaxed);
+
+    let keep = {
+        let guard = (*object).wrapper.jvm.attach_current_thread().unwrap();
+        let env: JNIEnv = *guard;
+        env.call_method(
+            (*object).wrapper.this.as_obj(),
+            "released",
+            "(J)Z",
+            &[JValue::Long(object as jlong)],
+        )
+        .and_then(|result| result.z())
+        .expect("released")
+    };
+    // Only free the structure after the JNI call has completed, as the
+    // attach guard borrows the JVM stored in it
+    if !keep {
+        drop(Box::from_raw(object));
+    }
+    1
+}
+
+unsafe extern "C" fn ref_counted_has_one_ref<T>(base: *mut _cef_base_ref_counted_t) -> c_int {
+    let object = base as *mut RefCounted<T>;
+    ((*object).count.load(Ordering::Acquire) == 1) as c_int
+}
+
+unsafe extern "C" fn ref_counted_has_at_least_one_ref<T>(
+    base: *mut _cef_base_ref_counted_t,
+) -> c_int {
+    let object = base as *mut RefCounted<T>;
+    ((*object).count.load(Ordering::Acquire) >= 1) as c_int
+}
+
+/// Implements jni_allocate and jni_deallocate for a given type, which is
+/// reference counted (see RefCounted)
+macro_rules! jni_ref_counted_structure {
+    ($type:ty) => {
+        #[jni_name("org.eclipse.set.browser.lib.ChromiumLib", $type)]
+        pub extern "C" fn allocate(env: JNIEnv, _class: JClass, object: JObject) -> jlong {
+            let mut wrapper: JNIWrapperType<$type> =
+                JNICEFCallback::jni_allocate(env, env.new_global_ref(object).unwrap());
+            wrapper.value.base.size = std::mem::size_of::<RefCounted<$type>>();
+            wrapper.value.base.add_ref = Some(ref_counted_add_ref::<$type>);
+            wrapper.value.base.release = Some(ref_counted_release::<$type>);
+            wrapper.value.base.has_one_ref = Some(ref_counted_has_one_ref::<$type>);
+            wrapper.value.base.has_at_least_one_ref =
+                Some(ref_counted_has_at_least_one_ref::<$type>);
+            let object = RefCounted {
+                wrapper,
+                count: AtomicUsize::new(1),
+            };
+            return Box::into_raw(Box::new(object)) as jlong;
+        }
+
+        #[jni_name("org.eclipse.set.browser.lib.ChromiumLib", $type)]
+        pub extern "C" fn deallocate(_env: JNIEnv, _class: JClass, object: *mut RefCounted<$type>) {
+            unsafe { drop(Box::from_raw(object)) };
+        }
+    };
+}
+
 jni_structure!(chromium::cef::_cef_client_t);
 jni_structure!(chromium::cef::_cef_app_t);
 jni_structure!(chromium::cef::_cef_context_menu_handler_t);
@@ -60,7 +152,8 @@ jni_structure!(chromium::cef::_cef_load_handler_t);
 jni_structure!(chromium::cef::_cef_request_handler_t);
 jni_structure!(chromium::cef::_cef_display_handler_t);
 jni_structure!(chromium::cef::_cef_download_handler_t);
-jni_structure!(chromium::cef::_cef_resource_handler_t);
-jni_structure!(chromium::cef::_cef_scheme_handler_factory_t);
+jni_ref_counted_structure!(chromium::cef::_cef_resource_handler_t);
+jni_ref_counted_structure!(chromium::cef::_cef_resource_request_handler_t);
+jni_ref_counted_structure!(chromium::cef::_cef_scheme_handler_factory_t);
 jni_structure!(chromium::cef::_cef_cookie_visitor_t);
 jni_structure!(chromium::cef::_cef_string_visitor_t);
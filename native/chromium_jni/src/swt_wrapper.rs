@@ -60,9 +60,10 @@ pub extern "C" fn Java_org_eclipse_set_browser_lib_ChromiumLib_cefswt_1function_
 ) {
     // IMPROVE: Avoid creating this object here
     let mut func_st = chromium_swt::FunctionSt {
-        args: 0,
+        call: 0,
         id: 0,
         port: 0,
+        process: 0,
     };
     unsafe {
         chromium_swt::cefswt_function_id(
@@ -70,15 +71,12 @@ pub extern "C" fn Java_org_eclipse_set_browser_lib_ChromiumLib_cefswt_1function_
             &mut func_st,
         );
     }
-    _env.set_field(
-        arg1,
-        "args",
-        "I",
-        JValue::Int(func_st.args.try_into().unwrap()),
-    )
-    .unwrap();
+    _env.set_field(arg1, "call", "I", JValue::Int(func_st.call))
+        .unwrap();
     _env.set_field(arg1, "id", "I", JValue::Int(func_st.id))
         .unwrap();
     _env.set_field(arg1, "port", "I", JValue::Int(func_st.port))
         .unwrap();
+    _env.set_field(arg1, "process", "I", JValue::Int(func_st.process))
+        .unwrap();
 }
@@ -138,6 +138,10 @@ fn handle_return(retn: &Option<String>) -> (proc_macro2::TokenStream, proc_macro
                 quote! { -> jni::sys::jint },
                 quote! { return result as jni::sys::jint; },
             ),
+            "i64" | "usize" => (
+                quote! { -> jni::sys::jlong },
+                quote! { return result as jni::sys::jlong; },
+            ),
             _ => {
                 // Catch all for pointers
                 if t.starts_with("* mut ") || t.starts_with("* const ") {
@@ -28,7 +28,12 @@ fn jni_result_signature(field: &Field) -> char {
 fn jni_type_signature(ty: &Type) -> char {
     match ty {
         Type::Ptr(_) => 'J',
-        Type::Path(_p) => 'I',
+        // 64 bit values are passed as Java long/double (see ToJava)
+        Type::Path(p) => match p.path.segments.last().unwrap().ident.to_string().as_str() {
+            "i64" | "u64" | "usize" => 'J',
+            "f64" => 'D',
+            _ => 'I',
+        },
         _ => panic!("Unhandled type {ty:?}"),
     }
 }
@@ -11,11 +11,58 @@
  * Contributors:
  *   Guillermo Zunino, Equo - initial implementation
  */
+use crate::codec;
 use crate::socket;
 use chromium::utils::cef_string;
-use std::ffi::{CStr, CString};
 use std::mem;
 use std::os::raw::c_int;
+use std::sync::OnceLock;
+use std::time::Duration;
+
+/// Command line switch the browser process passes its custom schemes with
+const CUSTOM_SCHEMES_SWITCH: &str = "set-custom-schemes";
+
+/// Command line switch the browser process passes the maximum time of a
+/// BrowserFunction call in milliseconds with. Calls wait indefinitely if it is
+/// missing.
+const SCRIPT_TIMEOUT_SWITCH: &str = "set-script-timeout";
+
+/// Returns the value of a switch of the process' command line
+unsafe fn switch_value(name: &str) -> Option<String> {
+    let command_line = chromium::cef::cef_command_line_get_global();
+    if command_line.is_null() {
+        return None;
+    }
+    let switch = cef_string(name);
+    let value = ((*command_line).get_switch_value.unwrap())(command_line, &switch);
+    ((*command_line).base.release.unwrap())(&mut (*command_line).base);
+    if value.is_null() {
+        return None;
+    }
+    Some(take_string(value))
+}
+
+/// Returns the maximum time of a BrowserFunction call
+fn script_timeout() -> Option<Duration> {
+    static TIMEOUT: OnceLock<Option<Duration>> = OnceLock::new();
+    *TIMEOUT.get_or_init(|| {
+        let value = unsafe { switch_value(SCRIPT_TIMEOUT_SWITCH) }?;
+        value.parse::<u64>().ok().map(Duration::from_millis)
+    })
+}
+
+/// Parses the value of the custom schemes switch, a comma separated list of
+/// `name:options` pairs where options is a bitmask of cef_scheme_options_t
+fn parse_custom_schemes(value: &str) -> Vec<(&str, c_int)> {
+    value
+        .split(',')
+        .filter_map(|scheme| {
+            let (name, options) = scheme.split_once(':')?;
+            Some((name, options.parse::<c_int>().ok()?))
+        })
+        .filter(|(name, _)| !name.is_empty())
+        .collect()
+}
 
 pub fn new_cef_base_ref_counted(size: usize) -> chromium::cef::_cef_base_ref_counted_t {
     chromium::cef::_cef_base_ref_counted_t {
@@ -67,10 +114,25 @@ impl App {
             ((*command_line).append_switch.unwrap())(command_line, &disable_component_update)
         }
 
+        unsafe extern "C" fn on_register_custom_schemes(
+            _self: *mut chromium::cef::_cef_app_t,
+            registrar: *mut chromium::cef::_cef_scheme_registrar_t,
+        ) {
+            // All processes must register the same schemes as the browser
+            // process, which passes them on the command line
+            let Some(schemes) = switch_value(CUSTOM_SCHEMES_SWITCH) else {
+                return;
+            };
+            for (name, options) in parse_custom_schemes(&schemes) {
+                let name = cef_string(name);
+                ((*registrar).add_custom_scheme.unwrap())(registrar, &name, options);
+            }
+        }
+
         chromium::cef::cef_app_t {
             base: new_cef_base_ref_counted(mem::size_of::<chromium::cef::cef_app_t>()),
             on_before_command_line_processing: Option::Some(on_before_command_line_processing),
-            on_register_custom_schemes: Option::None,
+            on_register_custom_schemes: Option::Some(on_register_custom_schemes),
             get_resource_bundle_handler: Option::None,
             get_browser_process_handler: Option::None,
             get_render_process_handler: Option::Some(get_render_process_handler),
@@ -222,94 +284,311 @@ unsafe fn handle_eval(
     message: *mut chromium::cef::_cef_process_message_t,
 ) {
     let args = (*message).get_argument_list.unwrap()(message);
-    let port = (*args).get_int.unwrap()(args, 0) as u16;
-    let id = (*args).get_int.unwrap()(args, 1);
-    let code = (*args).get_string.unwrap()(args, 2);
+    let id = (*args).get_int.unwrap()(args, 0);
+    let scripts = (*args).get_size.unwrap()(args);
 
     let frame = (*browser).get_main_frame.unwrap()(browser);
     let context = (*frame).get_v8context.unwrap()(frame);
     let url_cef = chromium::utils::cef_string("http://text/");
-    let mut ret = ::std::ptr::null_mut();
-    let mut ex = ::std::ptr::null_mut();
-
-    let s = (*context).eval.unwrap()(context, code, &url_cef, 1, &mut ret, &mut ex);
-    if s == 0 {
-        let ret_str_cef = (*ex).get_message.unwrap()(ex);
-        let ret_str = chromium::utils::cstr_from_cef(ret_str_cef);
-        let ret_str = CStr::from_ptr(ret_str);
-        socket::socket_client(port, ret_str.to_owned(), socket::ReturnType::Error);
-        chromium::cef::cef_string_userfree_utf16_free(ret_str_cef);
+
+    // Return all results to the browser process in one message, which is
+    // matched to the pending evaluation by its id
+    let msg_name = chromium::utils::cef_string("eval_result");
+    let msg = chromium::cef::cef_process_message_create(&msg_name);
+    let results = (*msg).get_argument_list.unwrap()(msg);
+    let s = (*results).set_int.unwrap()(results, 0, id);
+    assert_eq!(s, 1);
+
+    // Scripts of a batch are evaluated in order, a failing script does not
+    // prevent the following ones from running
+    for i in 1..scripts {
+        let code = (*args).get_string.unwrap()(args, i);
+        let mut ret = ::std::ptr::null_mut();
+        let mut ex = ::std::ptr::null_mut();
+
+        let s = (*context).eval.unwrap()(context, code, &url_cef, 1, &mut ret, &mut ex);
+        chromium::cef::cef_string_userfree_utf16_free(code);
+        let mut value = Vec::new();
+        if s == 0 {
+            let message = take_string((*ex).get_message.unwrap()(ex));
+            codec::write_error(&mut value, &message);
+        } else {
+            encode_value(ret, context, &mut value);
+        }
+
+        let binary =
+            chromium::cef::cef_binary_value_create(value.as_ptr() as *const _, value.len());
+        let s = (*results).set_binary.unwrap()(results, i, binary);
+        assert_eq!(s, 1);
+    }
+    (*frame).send_process_message.unwrap()(
+        frame,
+        chromium::cef::cef_process_id_t::PID_BROWSER,
+        msg,
+    );
+}
+
+/// Converts a cef_string_userfree_t to a String and frees it
+unsafe fn take_string(value: chromium::cef::cef_string_userfree_t) -> String {
+    if value.is_null() {
+        return String::new();
+    }
+    let string = string_from_cef(value);
+    chromium::cef::cef_string_userfree_utf16_free(value);
+    string
+}
+
+unsafe fn string_from_cef(value: *const chromium::cef::cef_string_t) -> String {
+    if (*value).length == 0 {
+        String::new()
     } else {
-        let (ret_str, kind) = convert_type(ret, id, context);
-        socket::socket_client(port, ret_str, kind);
+        chromium::utils::str_from_cef(value)
     }
 }
 
-unsafe fn convert_type(
-    ret: *mut chromium::cef::cef_v8value_t,
-    _eval_id: c_int,
+/// Maximum number of values encoded for a single result, which limits the
+/// work spent on large object graphs such as DOM nodes
+const MAX_VALUES: usize = 1 << 20;
+
+/// Encodes a V8 value with [`codec`]
+unsafe fn encode_value(
+    value: *mut chromium::cef::cef_v8value_t,
     context: *mut chromium::cef::cef_v8context_t,
-) -> (CString, socket::ReturnType) {
-    if (*ret).is_null.expect("is_null")(ret) == 1 || (*ret).is_undefined.unwrap()(ret) == 1 {
-        let ret_str = CString::new("").unwrap();
-        (ret_str, socket::ReturnType::Null)
-    } else if (*ret).is_bool.unwrap()(ret) == 1 {
-        let ret_cef = (*ret).get_bool_value.unwrap()(ret);
-        let ret_str = CString::new(format!("{ret_cef}")).unwrap();
-        (ret_str, socket::ReturnType::Bool)
-    } else if (*ret).is_int.unwrap()(ret) == 1 {
-        let ret_cef = (*ret).get_int_value.unwrap()(ret);
-        let ret_str = CString::new(format!("{ret_cef}")).unwrap();
-        (ret_str, socket::ReturnType::Double)
-    } else if (*ret).is_uint.unwrap()(ret) == 1 {
-        let ret_cef = (*ret).get_uint_value.unwrap()(ret);
-        let ret_str = CString::new(format!("{ret_cef}")).unwrap();
-        (ret_str, socket::ReturnType::Double)
-    } else if (*ret).is_double.unwrap()(ret) == 1 {
-        let ret_cef = (*ret).get_double_value.unwrap()(ret);
-        let ret_str = CString::new(format!("{ret_cef}")).unwrap();
-        (ret_str, socket::ReturnType::Double)
-    } else if (*ret).is_string.unwrap()(ret) == 1 {
-        let ret_str_cef = (*ret).get_string_value.unwrap()(ret);
-        let ret_str = chromium::utils::cstr_from_cef(ret_str_cef);
-        let cstr = chromium::utils::str_from_c(ret_str);
-        (
-            CString::new(cstr).expect("Failed to convert v8string to CString"),
-            socket::ReturnType::Str,
-        )
-    } else if (*ret).is_array.unwrap()(ret) == 1 {
-        let length = (*ret).get_array_length.unwrap()(ret);
-        let mut arraystr = String::new();
-        let array_val = ret;
-        if !context.is_null() {
-            let s = (*context).enter.unwrap()(context);
-            assert_eq!(s, 1);
+    out: &mut Vec<u8>,
+) {
+    let mut encoder = ValueEncoder::new(context, out);
+    encoder.encode(value);
+    encoder.finish();
+}
+
+/// Releases a V8 value obtained from an array or object
+unsafe fn release_value(value: *mut chromium::cef::cef_v8value_t) {
+    ((*value).base.release.unwrap())(&mut (*value).base);
+}
+
+/// Encodes V8 values with [`codec`], tracking the arrays and objects being
+/// encoded to reject cyclic and too deeply nested values. Such values and
+/// values exceeding [`MAX_VALUES`] abort the encoding, so that the whole
+/// result is replaced by a single error.
+struct ValueEncoder<'a> {
+    context: *mut chromium::cef::cef_v8context_t,
+    out: &'a mut Vec<u8>,
+    start: usize,
+    depth: usize,
+    error: Option<&'static str>,
+    parents: Vec<*mut chromium::cef::cef_v8value_t>,
+    values: usize,
+}
+
+impl<'a> ValueEncoder<'a> {
+    fn new(
+        context: *mut chromium::cef::cef_v8context_t,
+        out: &'a mut Vec<u8>,
+    ) -> ValueEncoder<'a> {
+        let start = out.len();
+        ValueEncoder {
+            context,
+            out,
+            start,
+            depth: 0,
+            error: Option::None,
+            parents: Vec::new(),
+            values: 0,
+        }
+    }
+
+    /// Replaces the encoded values with the error which aborted the encoding
+    fn finish(self) {
+        if let Some(error) = self.error {
+            self.out.truncate(self.start);
+            codec::write_error(self.out, error);
+        }
+    }
+
+    /// Encodes the arguments of a function call as an array
+    unsafe fn encode_all(&mut self, values: &[*mut chromium::cef::cef_v8value_t]) {
+        codec::write_array(self.out, values.len());
+        self.depth += 1;
+        for value in values {
+            self.encode(*value);
         }
+        self.depth -= 1;
+    }
 
-        arraystr.push('"');
+    unsafe fn encode(&mut self, value: *mut chromium::cef::cef_v8value_t) {
+        if self.error.is_some() {
+            // The remaining values are discarded anyway
+            return;
+        }
+        self.values += 1;
+        if self.values > MAX_VALUES {
+            self.error = Some("value too large");
+        } else if (*value).is_null.unwrap()(value) == 1
+            || (*value).is_undefined.unwrap()(value) == 1
+        {
+            codec::write_null(self.out);
+        } else if (*value).is_bool.unwrap()(value) == 1 {
+            codec::write_bool(self.out, (*value).get_bool_value.unwrap()(value) == 1);
+        } else if (*value).is_int.unwrap()(value) == 1 {
+            codec::write_int(self.out, (*value).get_int_value.unwrap()(value));
+        } else if (*value).is_uint.unwrap()(value) == 1 {
+            codec::write_double(self.out, (*value).get_uint_value.unwrap()(value) as f64);
+        } else if (*value).is_double.unwrap()(value) == 1 {
+            codec::write_double(self.out, (*value).get_double_value.unwrap()(value));
+        } else if (*value).is_string.unwrap()(value) == 1 {
+            codec::write_string(
+                self.out,
+                &take_string((*value).get_string_value.unwrap()(value)),
+            );
+        } else if (*value).is_array_buffer.unwrap()(value) == 1 {
+            let length = (*value).get_array_buffer_byte_length.unwrap()(value);
+            let data = (*value).get_array_buffer_data.unwrap()(value) as *const u8;
+            if data.is_null() {
+                codec::write_binary(self.out, &[]);
+            } else {
+                codec::write_binary(self.out, ::std::slice::from_raw_parts(data, length));
+            }
+        } else if (*value).is_function.unwrap()(value) == 1 {
+            codec::write_error(self.out, codec::INVALID_RETURN_VALUE);
+        } else if (*value).is_array.unwrap()(value) == 1 || (*value).is_object.unwrap()(value) == 1
+        {
+            if self.depth >= codec::MAX_DEPTH {
+                self.error = Some("value nested too deeply");
+            } else if self
+                .parents
+                .iter()
+                .any(|parent| (*value).is_same.unwrap()(value, *parent) == 1)
+            {
+                self.error = Some("cyclic object value");
+            } else {
+                self.enter(value);
+                if (*value).is_array.unwrap()(value) == 1 {
+                    self.encode_array(value);
+                } else {
+                    self.encode_object(value);
+                }
+                self.leave();
+            }
+        } else {
+            codec::write_error(self.out, codec::INVALID_RETURN_VALUE);
+        }
+    }
+
+    unsafe fn encode_array(&mut self, array: *mut chromium::cef::cef_v8value_t) {
+        let length = (*array).get_array_length.unwrap()(array);
+        codec::write_array(self.out, length.max(0) as usize);
         for i in 0..length {
-            let vali = (*array_val).get_value_byindex.unwrap()(array_val, i);
-            let (valcstr, valtyp) = convert_type(vali, _eval_id, context);
-            let typ = valtyp as u32;
-            let valstr = valcstr.into_string().unwrap();
-            let valstr = format!("'{typ},{valstr}'");
-            if i > 0 {
-                arraystr.push(';');
+            if self.error.is_some() {
+                break;
+            }
+            let element = (*array).get_value_byindex.unwrap()(array, i);
+            if element.is_null() {
+                codec::write_null(self.out);
+            } else {
+                self.encode(element);
+                release_value(element);
+            }
+        }
+    }
+
+    /// Encodes the enumerable properties of an object. Functions are skipped
+    /// like with JSON.stringify.
+    unsafe fn encode_object(&mut self, object: *mut chromium::cef::cef_v8value_t) {
+        let keys = chromium::cef::cef_string_list_alloc();
+        let size = if (*object).get_keys.unwrap()(object, keys) == 1 {
+            chromium::cef::cef_string_list_size(keys)
+        } else {
+            0
+        };
+        let start = self.out.len();
+        codec::write_object(self.out, size);
+        let mut count = 0;
+        for i in 0..size {
+            if self.error.is_some() {
+                break;
+            }
+            let mut key = chromium::cef::cef_string_t {
+                str_: ::std::ptr::null_mut(),
+                length: 0,
+                dtor: Option::None,
+            };
+            if chromium::cef::cef_string_list_value(keys, i, &mut key) == 1 {
+                let element = (*object).get_value_bykey.unwrap()(object, &key);
+                if !element.is_null() {
+                    if (*element).is_function.unwrap()(element) == 0 {
+                        codec::write_key(self.out, &string_from_cef(&key));
+                        self.encode(element);
+                        count += 1;
+                    }
+                    release_value(element);
+                }
             }
-            arraystr.push_str(&valstr);
+            chromium::cef::cef_string_utf16_clear(&mut key);
+        }
+        if count != size {
+            codec::patch_count(self.out, start, count);
         }
-        arraystr.push('"');
-        if !context.is_null() {
-            let s = (*context).exit.unwrap()(context);
+        chromium::cef::cef_string_list_free(keys);
+    }
+
+    unsafe fn enter(&mut self, value: *mut chromium::cef::cef_v8value_t) {
+        if !self.context.is_null() {
+            let s = (*self.context).enter.unwrap()(self.context);
+            assert_eq!(s, 1);
+        }
+        self.depth += 1;
+        self.parents.push(value);
+    }
+
+    unsafe fn leave(&mut self) {
+        self.parents.pop();
+        self.depth -= 1;
+        if !self.context.is_null() {
+            let s = (*self.context).exit.unwrap()(self.context);
             assert_eq!(s, 1);
         }
-        (CString::new(arraystr).unwrap(), socket::ReturnType::Array)
-    } else {
-        let ret_str = CString::new("51").unwrap();
-        (ret_str, socket::ReturnType::Error)
     }
 }
 
+/// Release callback for ArrayBuffers created by [`create_array_buffer`]
+static ARRAY_BUFFER_RELEASE: chromium::cef::_cef_v8array_buffer_release_callback_t =
+    chromium::cef::_cef_v8array_buffer_release_callback_t {
+        base: chromium::cef::_cef_base_ref_counted_t {
+            size: mem::size_of::<chromium::cef::_cef_v8array_buffer_release_callback_t>(),
+            add_ref: Option::None,
+            has_one_ref: Option::None,
+            release: Option::None,
+            has_at_least_one_ref: Option::None,
+        },
+        release_buffer: Option::Some(release_array_buffer),
+    };
+
+// The length of the buffer is stored in front of the data to free it
+const ARRAY_BUFFER_HEADER: usize = mem::size_of::<usize>();
+
+unsafe fn create_array_buffer(data: &[u8]) -> *mut chromium::cef::cef_v8value_t {
+    let mut buffer = vec![0u8; ARRAY_BUFFER_HEADER + data.len()].into_boxed_slice();
+    buffer[..ARRAY_BUFFER_HEADER].copy_from_slice(&buffer.len().to_ne_bytes());
+    buffer[ARRAY_BUFFER_HEADER..].copy_from_slice(data);
+    let buffer = Box::into_raw(buffer) as *mut u8;
+    chromium::cef::cef_v8value_create_array_buffer(
+        buffer.add(ARRAY_BUFFER_HEADER) as *mut _,
+        data.len(),
+        &ARRAY_BUFFER_RELEASE as *const _ as *mut _,
+    )
+}
+
+unsafe extern "C" fn release_array_buffer(
+    _self: *mut chromium::cef::_cef_v8array_buffer_release_callback_t,
+    buffer: *mut ::std::os::raw::c_void,
+) {
+    let buffer = (buffer as *mut u8).sub(ARRAY_BUFFER_HEADER);
+    let mut length = [0u8; ARRAY_BUFFER_HEADER];
+    length.copy_from_slice(::std::slice::from_raw_parts(buffer, ARRAY_BUFFER_HEADER));
+    let length = usize::from_ne_bytes(length);
+    drop(Box::from_raw(::std::ptr::slice_from_raw_parts_mut(buffer, length)));
+}
+
 #[repr(C)]
 struct V8Handler {
     cef: chromium::cef::_cef_v8handler_t,
@@ -346,44 +625,35 @@ impl V8Handler {
             let args = (*msg).get_argument_list.unwrap()(msg);
             let nm = chromium::utils::str_from_c(chromium::utils::cstr_from_cef(name));
             let s =
-                (*args).set_int.unwrap()(args, 1, nm.parse::<i32>().expect("failed to parse i32"));
+                (*args).set_int.unwrap()(args, 3, nm.parse::<i32>().expect("failed to parse i32"));
             assert_eq!(s, 1);
 
-            for i in 0..arguments_count {
-                let v8val = arguments.wrapping_add(i);
-
-                if !v8val.is_null() {
-                    let ptr = v8val.read();
-                    let (cstr, kind) = convert_type(ptr, 0, ::std::ptr::null_mut());
-                    let s = (*args).set_int.unwrap()(args, 1 + i * 2 + 1, kind as i32);
-                    assert_eq!(s, 1);
-                    let rstr = cstr.into_string().expect("failed to convert string");
-                    let strval = chromium::utils::cef_string(&rstr);
-                    let s = (*args).set_string.unwrap()(args, 1 + i * 2 + 2, &strval);
-                    assert_eq!(s, 1);
-                }
-            }
+            let mut value = Vec::new();
+            let arguments: &[*mut chromium::cef::_cef_v8value_t] = if arguments_count == 0 {
+                &[]
+            } else {
+                ::std::slice::from_raw_parts(arguments, arguments_count)
+            };
+            let mut encoder = ValueEncoder::new(::std::ptr::null_mut(), &mut value);
+            encoder.encode_all(arguments);
+            encoder.finish();
+            let binary =
+                chromium::cef::cef_binary_value_create(value.as_ptr() as *const _, value.len());
+            let s = (*args).set_binary.unwrap()(args, 4, binary);
+            assert_eq!(s, 1);
 
-            let result = socket::wait_response(
-                browser,
-                msg,
-                args,
-                chromium::cef::cef_process_id_t::PID_BROWSER,
-                None,
-            );
+            let result = socket::call(browser, msg, args, script_timeout());
             match result {
-                Ok(return_st) => {
-                    match map_type(return_st.kind, return_st.str_value.to_str().unwrap()) {
-                        Ok(v) => {
-                            *retval = v;
-                        }
-                        Err(e) => {
-                            *exception = chromium::utils::cef_string(e);
-                        }
+                Ok(value) => match decode_value(&mut codec::Reader::new(&value)) {
+                    Ok(v) => {
+                        *retval = v;
                     }
-                }
-                Err(_e) => {
-                    *exception = chromium::utils::cef_string("socket server panic");
+                    Err(e) => {
+                        *exception = chromium::utils::cef_string(&e);
+                    }
+                },
+                Err(e) => {
+                    *exception = chromium::utils::cef_string(&format!("function call failed: {e}"));
                 }
             };
             1
@@ -396,73 +666,66 @@ impl V8Handler {
     }
 }
 
-unsafe fn map_type(
-    kind: socket::ReturnType,
-    str_value: &str,
-) -> Result<*mut chromium::cef::cef_v8value_t, &str> {
-    match kind {
-        socket::ReturnType::Null => Ok(chromium::cef::cef_v8value_create_null()),
-        socket::ReturnType::Bool => {
-            let boolean = str_value.parse::<i32>().expect("cannot parse i32");
-            Ok(chromium::cef::cef_v8value_create_bool(boolean))
-        }
-        socket::ReturnType::Double => {
-            let double = str_value.parse::<f64>().expect("cannot parse f64");
-            Ok(chromium::cef::cef_v8value_create_double(double))
-        }
-        socket::ReturnType::Str => {
-            let str_cef = chromium::utils::cef_string(str_value);
+/// Decodes a value encoded with [`codec`] into a V8 value
+unsafe fn decode_value(
+    reader: &mut codec::Reader,
+) -> Result<*mut chromium::cef::cef_v8value_t, String> {
+    match reader.read_tag()? {
+        codec::NULL => Ok(chromium::cef::cef_v8value_create_null()),
+        codec::BOOL => Ok(chromium::cef::cef_v8value_create_bool(
+            reader.read_bool()? as c_int,
+        )),
+        codec::INT => Ok(chromium::cef::cef_v8value_create_int(reader.read_int()?)),
+        codec::DOUBLE => Ok(chromium::cef::cef_v8value_create_double(
+            reader.read_double()?,
+        )),
+        codec::STRING => {
+            let str_cef = chromium::utils::cef_string(reader.read_str()?);
             Ok(chromium::cef::cef_v8value_create_string(&str_cef))
         }
-        socket::ReturnType::Array => {
-            let rstr = str_value;
-            let rstr = rstr.get(1..rstr.len() - 1).expect("not quoted");
-            let v = split(rstr, '"', ';');
-            let array = chromium::cef::cef_v8value_create_array(v.len() as i32);
-            for (i, str) in v.iter().enumerate() {
-                let elem_unquoted = str.get(1..str.len() - 1).expect("elem not quoted");
-                let parts = splitn(elem_unquoted, 2, '\'', ',');
-                let elem_type = socket::ReturnType::from(parts[0].parse::<i32>().unwrap());
-                let elem_value = map_type(elem_type, parts[1]);
-                let s = (*array).set_value_byindex.unwrap()(
-                    array,
-                    i as i32,
-                    elem_value.expect("invalid elem type"),
-                );
+        codec::BINARY => Ok(create_array_buffer(reader.read_bytes()?)),
+        codec::ARRAY => {
+            let count = reader.enter()?;
+            let array = chromium::cef::cef_v8value_create_array(count as c_int);
+            for i in 0..count {
+                let element = decode_value(reader)?;
+                let s = (*array).set_value_byindex.unwrap()(array, i as c_int, element);
                 assert_eq!(s, 1, "failed to set v8array index");
             }
+            reader.leave();
             Ok(array)
         }
-        _ => Err(str_value),
-    }
-}
-
-fn split(rstr: &'_ str, quote: char, sep: char) -> Vec<&'_ str> {
-    let mut in_string = false;
-    let v: Vec<&str> = rstr
-        .split_terminator(|c| {
-            if c == quote && in_string {
-                in_string = false;
-            } else if c == quote && !in_string {
-                in_string = true;
+        codec::OBJECT => {
+            let count = reader.enter()?;
+            let object = chromium::cef::cef_v8value_create_object(
+                ::std::ptr::null_mut(),
+                ::std::ptr::null_mut(),
+            );
+            for _ in 0..count {
+                let key = chromium::utils::cef_string(reader.read_str()?);
+                let value = decode_value(reader)?;
+                let s = (*object).set_value_bykey.unwrap()(
+                    object,
+                    &key,
+                    value,
+                    chromium::cef::cef_v8_propertyattribute_t::V8_PROPERTY_ATTRIBUTE_NONE,
+                );
+                assert_eq!(s, 1, "failed to set v8object key");
             }
-            c == sep && !in_string
-        })
-        .collect();
-    v
+            reader.leave();
+            Ok(object)
+        }
+        codec::ERROR => Err(reader.read_str()?.to_string()),
+        tag => Err(format!("unknown value type {tag}")),
+    }
 }
 
-fn splitn(rstr: &'_ str, max: usize, quote: char, sep: char) -> Vec<&'_ str> {
-    let mut in_string = false;
-    let v: Vec<&str> = rstr
-        .splitn(max, |c| {
-            if c == quote && in_string {
-                in_string = false;
-            } else if c == quote && !in_string {
-                in_string = true;
-            }
-            c == sep && !in_string
-        })
-        .collect();
-    v
+#[test]
+fn parse_custom_schemes_test() {
+    assert_eq!(
+        parse_custom_schemes("set:73,other:1"),
+        vec![("set", 73), ("other", 1)]
+    );
+    assert_eq!(parse_custom_schemes(""), vec![]);
+    assert_eq!(parse_custom_schemes("set,:1,bad:x,ok:8"), vec![("ok", 8)]);
 }
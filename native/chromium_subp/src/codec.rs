@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+//! Binary encoding of values exchanged between JavaScript and Java
+//!
+//! Each value starts with a tag byte followed by its payload. All numbers are
+//! little-endian, lengths and counts are u32:
+//!
+//! - `NULL`: no payload
+//! - `BOOL`: one byte, 0 or 1
+//! - `INT`: i32
+//! - `DOUBLE`: f64
+//! - `STRING`, `ERROR`: length and UTF-8 bytes
+//! - `BINARY`: length and bytes
+//! - `ARRAY`: count and the elements
+//! - `OBJECT`: count and the entries, each a key (length and UTF-8 bytes)
+//!   followed by the value
+//!
+//! Values are written and read in a single pass without an intermediate
+//! representation. Must match org.eclipse.set.browser.cef.ValueCodec.
+
+pub const NULL: u8 = 0;
+pub const BOOL: u8 = 1;
+pub const INT: u8 = 2;
+pub const DOUBLE: u8 = 3;
+pub const STRING: u8 = 4;
+pub const ARRAY: u8 = 5;
+pub const OBJECT: u8 = 6;
+pub const BINARY: u8 = 7;
+pub const ERROR: u8 = 8;
+
+/// Error message for values which cannot be converted
+/// (SWT.ERROR_INVALID_RETURN_VALUE)
+pub const INVALID_RETURN_VALUE: &str = "51";
+
+/// Maximum nesting of arrays and objects accepted by [`Reader`]
+pub const MAX_DEPTH: usize = 64;
+
+pub fn write_null(out: &mut Vec<u8>) {
+    out.push(NULL);
+}
+
+pub fn write_bool(out: &mut Vec<u8>, value: bool) {
+    out.push(BOOL);
+    out.push(value as u8);
+}
+
+pub fn write_int(out: &mut Vec<u8>, value: i32) {
+    out.push(INT);
+    out.extend_from_slice(&value.to_le_bytes());
+}
+
+pub fn write_double(out: &mut Vec<u8>, value: f64) {
+    out.push(DOUBLE);
+    out.extend_from_slice(&value.to_le_bytes());
+}
+
+pub fn write_string(out: &mut Vec<u8>, value: &str) {
+    out.push(STRING);
+    write_bytes(out, value.as_bytes());
+}
+
+pub fn write_binary(out: &mut Vec<u8>, value: &[u8]) {
+    out.push(BINARY);
+    write_bytes(out, value);
+}
+
+pub fn write_error(out: &mut Vec<u8>, message: &str) {
+    out.push(ERROR);
+    write_bytes(out, message.as_bytes());
+}
+
+/// Starts an array, which must be followed by `count` values
+pub fn write_array(out: &mut Vec<u8>, count: usize) {
+    out.push(ARRAY);
+    write_length(out, count);
+}
+
+/// Starts an object, which must be followed by `count` entries written with
+/// [`write_key`] and a value each
+pub fn write_object(out: &mut Vec<u8>, count: usize) {
+    out.push(OBJECT);
+    write_length(out, count);
+}
+
+pub fn write_key(out: &mut Vec<u8>, key: &str) {
+    write_bytes(out, key.as_bytes());
+}
+
+/// Overwrites the count of an array or object started at `start`, e.g. if
+/// some entries were skipped while writing them
+pub fn patch_count(out: &mut [u8], start: usize, count: usize) {
+    out[start + 1..start + 5].copy_from_slice(&(count as u32).to_le_bytes());
+}
+
+fn write_length(out: &mut Vec<u8>, length: usize) {
+    out.extend_from_slice(&(length as u32).to_le_bytes());
+}
+
+fn write_bytes(out: &mut Vec<u8>, value: &[u8]) {
+    write_length(out, value.len());
+    out.extend_from_slice(value);
+}
+
+/// Streaming reader over an encoded value
+///
+/// The caller reads the tag of each value and then its payload with the
+/// matching function.
+pub struct Reader<'a> {
+    data: &'a [u8],
+    position: usize,
+    depth: usize,
+}
+
+impl<'a> Reader<'a> {
+    pub fn new(data: &'a [u8]) -> Reader<'a> {
+        Reader {
+            data,
+            position: 0,
+            depth: 0,
+        }
+    }
+
+    pub fn is_empty(&self) -> bool {
+        self.position >= self.data.len()
+    }
+
+    pub fn read_tag(&mut self) -> Result<u8, String> {
+        Ok(self.take(1)?[0])
+    }
+
+    pub fn read_bool(&mut self) -> Result<bool, String> {
+        Ok(self.take(1)?[0] != 0)
+    }
+
+    pub fn read_int(&mut self) -> Result<i32, String> {
+        Ok(i32::from_le_bytes(self.take(4)?.try_into().unwrap()))
+    }
+
+    pub fn read_double(&mut self) -> Result<f64, String> {
+        Ok(f64::from_le_bytes(self.take(8)?.try_into().unwrap()))
+    }
+
+    /// Reads the payload of a string, error or object key
+    pub fn read_str(&mut self) -> Result<&'a str, String> {
+        let bytes = self.read_bytes()?;
+        ::std::str::from_utf8(bytes).map_err(|e| e.to_string())
+    }
+
+    /// Reads the payload of a binary value
+    pub fn read_bytes(&mut self) -> Result<&'a [u8], String> {
+        let length = self.read_length()?;
+        self.take(length)
+    }
+
+    /// Reads the count of an array or object and enters it. Call [`leave`]
+    /// after reading its content.
+    ///
+    /// [`leave`]: Reader::leave
+    pub fn enter(&mut self) -> Result<usize, String> {
+        if self.depth >= MAX_DEPTH {
+            return Err("value nested too deeply".to_string());
+        }
+        let count = self.read_length()?;
+        // Each element takes at least one byte, which prevents large
+        // allocations for corrupt counts
+        if count > self.data.len() - self.position {
+            return Err("invalid count".to_string());
+        }
+        self.depth += 1;
+        Ok(count)
+    }
+
+    pub fn leave(&mut self) {
+        self.depth -= 1;
+    }
+
+    fn read_length(&mut self) -> Result<usize, String> {
+        Ok(u32::from_le_bytes(self.take(4)?.try_into().unwrap()) as usize)
+    }
+
+    fn take(&mut self, length: usize) -> Result<&'a [u8], String> {
+        if length > self.data.len() - self.position {
+            return Err("unexpected end of value".to_string());
+        }
+        let bytes = &self.data[self.position..self.position + length];
+        self.position += length;
+        Ok(bytes)
+    }
+}
+
+#[test]
+fn primitives() {
+    let mut out = Vec::new();
+    write_null(&mut out);
+    write_bool(&mut out, true);
+    write_int(&mut out, -42);
+    write_double(&mut out, 1.5);
+    write_string(&mut out, "o \"la\" 'la';");
+    write_binary(&mut out, &[0, 1, 255]);
+    write_error(&mut out, INVALID_RETURN_VALUE);
+
+    let mut reader = Reader::new(&out);
+    assert_eq!(reader.read_tag(), Ok(NULL));
+    assert_eq!(reader.read_tag(), Ok(BOOL));
+    assert_eq!(reader.read_bool(), Ok(true));
+    assert_eq!(reader.read_tag(), Ok(INT));
+    assert_eq!(reader.read_int(), Ok(-42));
+    assert_eq!(reader.read_tag(), Ok(DOUBLE));
+    assert_eq!(reader.read_double(), Ok(1.5));
+    assert_eq!(reader.read_tag(), Ok(STRING));
+    assert_eq!(reader.read_str(), Ok("o \"la\" 'la';"));
+    assert_eq!(reader.read_tag(), Ok(BINARY));
+    assert_eq!(reader.read_bytes(), Ok(&[0u8, 1, 255][..]));
+    assert_eq!(reader.read_tag(), Ok(ERROR));
+    assert_eq!(reader.read_str(), Ok(INVALID_RETURN_VALUE));
+    assert!(reader.is_empty());
+}
+
+#[test]
+fn nested() {
+    let mut out = Vec::new();
+    write_object(&mut out, 2);
+    write_key(&mut out, "a");
+    write_array(&mut out, 0);
+    write_key(&mut out, "b");
+    let start = out.len();
+    write_array(&mut out, 3);
+    write_int(&mut out, 1);
+    patch_count(&mut out, start, 1);
+
+    let mut reader = Reader::new(&out);
+    assert_eq!(reader.read_tag(), Ok(OBJECT));
+    assert_eq!(reader.enter(), Ok(2));
+    assert_eq!(reader.read_str(), Ok("a"));
+    assert_eq!(reader.read_tag(), Ok(ARRAY));
+    assert_eq!(reader.enter(), Ok(0));
+    reader.leave();
+    assert_eq!(reader.read_str(), Ok("b"));
+    assert_eq!(reader.read_tag(), Ok(ARRAY));
+    assert_eq!(reader.enter(), Ok(1));
+    assert_eq!(reader.read_tag(), Ok(INT));
+    assert_eq!(reader.read_int(), Ok(1));
+    reader.leave();
+    reader.leave();
+    assert!(reader.is_empty());
+}
+
+#[test]
+fn truncated() {
+    let mut out = Vec::new();
+    write_string(&mut out, "abc");
+    out.pop();
+
+    let mut reader = Reader::new(&out);
+    assert_eq!(reader.read_tag(), Ok(STRING));
+    assert!(reader.read_str().is_err());
+
+    let mut out = Vec::new();
+    write_array(&mut out, 1000);
+    let mut reader = Reader::new(&out);
+    assert_eq!(reader.read_tag(), Ok(ARRAY));
+    assert!(reader.enter().is_err());
+}
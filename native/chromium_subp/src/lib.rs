@@ -12,4 +12,5 @@
  *   Guillermo Zunino, Equo - initial implementation
  */
 pub mod app;
+pub mod codec;
 pub mod socket;
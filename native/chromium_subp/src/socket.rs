@@ -11,180 +11,232 @@
  * Contributors:
  *   Guillermo Zunino, Equo - initial implementation
  */
-use std::ffi::{CStr, CString};
 use std::io::{Read, Write};
 use std::net::{TcpListener, TcpStream};
-use std::os::raw::{c_char, c_int};
-
-#[derive(Debug, PartialEq, Eq)]
-#[repr(C)]
-pub enum ReturnType {
-    Double = 0,
-    Bool = 1,
-    Str = 2,
-    Null = 3,
-    Array = 4,
-    Error = 5,
+use std::sync::atomic::{AtomicI32, Ordering};
+use std::sync::Mutex;
+use std::time::{Duration, Instant};
+
+/// Reads a value encoded with [`crate::codec`], prefixed by its length and
+/// the id of the call it answers
+fn read_frame<R: Read>(channel: &mut R) -> ::std::io::Result<(i32, Vec<u8>)> {
+    let mut header = [0; 8];
+    channel.read_exact(&mut header)?;
+    let length = u32::from_le_bytes(header[..4].try_into().unwrap());
+    let call = i32::from_le_bytes(header[4..].try_into().unwrap());
+    let mut bytes = vec![0; length as usize];
+    channel.read_exact(&mut bytes)?;
+    Ok((call, bytes))
 }
 
-impl ReturnType {
-    pub fn from(i: i32) -> ReturnType {
-        match i {
-            0 => ReturnType::Double,
-            1 => ReturnType::Bool,
-            2 => ReturnType::Str,
-            3 => ReturnType::Null,
-            4 => ReturnType::Array,
-            _ => ReturnType::Error,
-        }
-    }
+fn write_frame<W: Write>(channel: &mut W, call: i32, value: &[u8]) -> ::std::io::Result<()> {
+    let mut buffer = Vec::with_capacity(8 + value.len());
+    buffer.extend_from_slice(&(value.len() as u32).to_le_bytes());
+    buffer.extend_from_slice(&call.to_le_bytes());
+    buffer.extend_from_slice(value);
+    channel.write_all(&buffer)
 }
 
-#[repr(C)]
-#[derive(Debug, PartialEq, Eq)]
-pub struct ReturnSt {
-    pub kind: ReturnType,
-    pub str_value: CString,
-}
+#[test]
+fn serialize_sequence() {
+    let mut channel: Vec<u8> = vec![];
 
-#[repr(C)]
-#[derive(Debug, PartialEq, Eq)]
-struct ReturnMsg {
-    kind: ReturnType,
-    length: usize,
-}
+    write_frame(&mut channel, 1, &[1, 2, 3]).unwrap();
+    write_frame(&mut channel, 2, &[]).unwrap();
+    write_frame(&mut channel, -3, b"two").unwrap();
 
-unsafe fn any_as_u8_slice<T: Sized>(p: &T) -> &[u8] {
-    ::std::slice::from_raw_parts((p as *const T) as *const u8, ::std::mem::size_of::<T>())
+    let mut reader = &channel[..];
+    assert_eq!(read_frame(&mut reader).unwrap(), (1, vec![1, 2, 3]));
+    assert_eq!(read_frame(&mut reader).unwrap(), (2, Vec::<u8>::new()));
+    assert_eq!(read_frame(&mut reader).unwrap(), (-3, b"two".to_vec()));
+    assert!(reader.is_empty());
 }
 
-fn read_struct<T, R: Read>(mut read: R) -> ::std::io::Result<(usize, T)> {
-    let num_bytes = ::std::mem::size_of::<T>();
-    unsafe {
-        let mut s = ::std::mem::MaybeUninit::<T>::uninit();
-        let buffer = ::std::slice::from_raw_parts_mut(s.as_mut_ptr() as *mut u8, num_bytes);
-        match read.read_exact(buffer) {
-            Ok(()) => {
-                let s = s.assume_init();
-                Ok((num_bytes, s))
-            }
-            Err(e) => Err(e),
-        }
-    }
+/// Channel the renderer process receives function call results on
+///
+/// The listener is bound once per process and the browser process keeps its
+/// connection open, so each call only costs a process message and a blocking
+/// read of the result.
+struct Channel {
+    listener: TcpListener,
+    stream: Option<TcpStream>,
 }
 
-fn read_buffer(channel: &[u8]) -> ReturnSt {
-    let (skip, read_msg) = read_struct::<ReturnMsg, _>(channel).unwrap();
-
-    let cstr = CStr::from_bytes_with_nul(&channel[skip..]).expect("Failed to read string");
-    ReturnSt {
-        kind: read_msg.kind,
-        str_value: cstr.to_owned(),
-    }
-}
+static CHANNEL: Mutex<Option<Channel>> = Mutex::new(None);
 
-fn write_buffer<W: Write>(channel: &mut W, val: CString, kind: ReturnType) {
-    let msg = ReturnMsg {
-        kind,
-        length: val.as_bytes().len(),
-    };
-    let bytes: &[u8] = unsafe { any_as_u8_slice(&msg) };
-    let mut buffer = Vec::new();
-    buffer.write_all(bytes).expect("Failed to write struct");
+/// Id of the next call, which is sent back with its result
+static NEXT_CALL: AtomicI32 = AtomicI32::new(0);
 
-    let bytes = val.into_bytes_with_nul();
-    buffer.write_all(&bytes).expect("Failed to write return");
-    channel.write_all(&buffer).expect("Failed to write buffer");
+/// Connection of the browser process to a renderer process' channel
+struct Connection {
+    port: u16,
+    process: i32,
+    stream: TcpStream,
 }
 
-#[test]
-fn serialize_string() {
-    let mut channel: Vec<u8> = vec![];
-
-    let s = CString::new("o la la").unwrap();
-    write_buffer(&mut channel, s, ReturnType::Str);
-
-    let read_st = read_buffer(&channel);
+static CONNECTIONS: Mutex<Vec<Connection>> = Mutex::new(Vec::new());
 
-    assert_eq!(ReturnType::Str, read_st.kind);
-    assert_eq!(CString::new("o la la").unwrap(), read_st.str_value);
+fn timed_out() -> ::std::io::Error {
+    ::std::io::Error::new(::std::io::ErrorKind::TimedOut, "timed out")
 }
 
-#[test]
-fn serialize_null() {
-    let mut channel: Vec<u8> = vec![];
-
-    let s = CString::new("").unwrap();
-    write_buffer(&mut channel, s, ReturnType::Null);
-
-    let read_st = read_buffer(&channel);
+/// Accepts the connection of the browser process, giving up at the deadline
+fn accept(listener: &TcpListener, deadline: Option<Instant>) -> ::std::io::Result<TcpStream> {
+    // std offers no accept timeout, so poll the listener if there is one.
+    // This only happens for the first call of a process.
+    listener.set_nonblocking(deadline.is_some())?;
+    loop {
+        match listener.accept() {
+            Ok((stream, _)) => {
+                stream.set_nonblocking(false)?;
+                stream.set_nodelay(true)?;
+                return Ok(stream);
+            }
+            Err(e) if e.kind() == ::std::io::ErrorKind::WouldBlock => {
+                if deadline.is_some_and(|deadline| Instant::now() >= deadline) {
+                    return Err(timed_out());
+                }
+                ::std::thread::sleep(Duration::from_millis(1));
+            }
+            Err(e) => return Err(e),
+        }
+    }
+}
 
-    assert_eq!(ReturnType::Null, read_st.kind);
-    assert_eq!(CString::new("").unwrap(), read_st.str_value);
+/// Reads the result of the given call. Results of earlier calls, which
+/// arrive after these timed out, are skipped.
+fn read_result(
+    stream: &mut TcpStream,
+    call: i32,
+    deadline: Option<Instant>,
+) -> ::std::io::Result<Vec<u8>> {
+    loop {
+        let timeout = match deadline {
+            Some(deadline) => Some(
+                deadline
+                    .checked_duration_since(Instant::now())
+                    .filter(|remaining| !remaining.is_zero())
+                    .ok_or_else(timed_out)?,
+            ),
+            None => None,
+        };
+        stream.set_read_timeout(timeout)?;
+        let (id, value) = read_frame(stream)?;
+        if id == call {
+            return Ok(value);
+        }
+    }
 }
 
-pub fn wait_response(
+/// Sends a message to the browser process and blocks until the encoded
+/// result is returned via [`reply`] or the timeout expires
+///
+/// The port and process id of the renderer's channel and the id of the call
+/// are stored in the first three arguments of the message.
+pub fn call(
     browser: *mut chromium::cef::cef_browser_t,
     msg: *mut chromium::cef::cef_process_message_t,
     args: *mut chromium::cef::_cef_list_value_t,
-    target: chromium::cef::cef_process_id_t,
-    callback: Option<unsafe extern "system" fn(work: c_int, kind: c_int, value: *const c_char)>,
-) -> Result<ReturnSt, String> {
-    match TcpListener::bind(("127.0.0.1", 0)) {
-        Ok(listener) => {
-            let port = listener.local_addr().unwrap().port();
-            let s = unsafe { (*args).set_int.unwrap()(args, 0, port as i32) };
-            assert_eq!(s, 1);
-            let frame = unsafe { (*browser).get_main_frame.unwrap()(browser) };
-            unsafe { (*frame).send_process_message.unwrap()(frame, target, msg) };
-            let mut res = None;
-            listener
-                .set_nonblocking(true)
-                .expect("Cannot set non-blocking");
-            for stream in listener.incoming() {
-                match stream {
-                    Ok(mut stream) => {
-                        let mut buffer = Vec::new();
-                        loop {
-                            match stream.read_to_end(&mut buffer) {
-                                Ok(_n) => {
-                                    let ret = read_buffer(&buffer);
-                                    res = Some(Ok(ret));
-                                    break;
-                                }
-                                Err(ref e) if e.kind() == ::std::io::ErrorKind::WouldBlock => {}
-                                Err(e) => {
-                                    res = Some(Err(e.to_string()));
-                                    break;
-                                }
-                            }
-                        }
-                    }
-                    Err(_e) => {
-                        unsafe {
-                            if let Some(call) = callback {
-                                call(1, ReturnType::Error as i32, ::std::ptr::null());
-                            }
-                        };
-                        unsafe { chromium::cef::cef_do_message_loop_work() };
-                    }
-                };
-                if res.is_some() {
-                    break;
-                }
-            }
-            res.unwrap()
-        }
-        Err(e) => Err(e.to_string()),
+    timeout: Option<Duration>,
+) -> Result<Vec<u8>, String> {
+    let deadline = timeout.map(|timeout| Instant::now() + timeout);
+    let mut channel = CHANNEL.lock().map_err(|e| e.to_string())?;
+    if channel.is_none() {
+        let listener = TcpListener::bind(("127.0.0.1", 0)).map_err(|e| e.to_string())?;
+        *channel = Some(Channel {
+            listener,
+            stream: None,
+        });
+    }
+    let channel = channel.as_mut().unwrap();
+    let port = channel
+        .listener
+        .local_addr()
+        .map_err(|e| e.to_string())?
+        .port();
+    let call = NEXT_CALL.fetch_add(1, Ordering::Relaxed);
+    unsafe {
+        let s = (*args).set_int.unwrap()(args, 0, port as i32);
+        assert_eq!(s, 1);
+        let s = (*args).set_int.unwrap()(args, 1, ::std::process::id() as i32);
+        assert_eq!(s, 1);
+        let s = (*args).set_int.unwrap()(args, 2, call);
+        assert_eq!(s, 1);
+        let frame = (*browser).get_main_frame.unwrap()(browser);
+        (*frame).send_process_message.unwrap()(
+            frame,
+            chromium::cef::cef_process_id_t::PID_BROWSER,
+            msg,
+        );
+    }
+    if channel.stream.is_none() {
+        // The browser process connects when returning its first result
+        let stream = accept(&channel.listener, deadline).map_err(|e| e.to_string())?;
+        channel.stream = Some(stream);
+    }
+    let result = read_result(channel.stream.as_mut().unwrap(), call, deadline);
+    if result.is_err() {
+        // A partially read frame cannot be resumed. Closing the stream makes
+        // the browser process connect again for the next result.
+        channel.stream = None;
+    }
+    result.map_err(|e| e.to_string())
+}
+
+/// Whether the renderer process closed the connection, e.g. after a call
+/// timed out. The renderer never writes to it, so any readable state means
+/// the connection was closed or reset.
+fn is_closed(stream: &TcpStream) -> bool {
+    if stream.set_nonblocking(true).is_err() {
+        return true;
+    }
+    let closed = match stream.peek(&mut [0; 1]) {
+        Err(e) => e.kind() != ::std::io::ErrorKind::WouldBlock,
+        Ok(_) => true,
+    };
+    closed || stream.set_nonblocking(false).is_err()
+}
+
+/// Drops the connections to renderer processes which terminated or closed
+/// their channel
+pub fn prune() {
+    if let Ok(mut connections) = CONNECTIONS.lock() {
+        connections.retain(|c| !is_closed(&c.stream));
     }
 }
 
-pub fn socket_client(port: u16, ret: CString, ret_type: ReturnType) -> i32 {
-    match TcpStream::connect(("127.0.0.1", port)) {
-        Ok(mut stream) => {
-            write_buffer(&mut stream, ret, ret_type);
-            1
+/// Returns the encoded result of a function call to the renderer process
+/// waiting in [`call`]
+pub fn reply(process: i32, port: u16, call: i32, value: &[u8]) -> i32 {
+    let mut connections = match CONNECTIONS.lock() {
+        Ok(connections) => connections,
+        Err(_e) => return 0,
+    };
+    // Drop connections to a renderer process which closed its channel or
+    // whose port was reused by another renderer process
+    connections.retain(|c| c.port != port || (c.process == process && !is_closed(&c.stream)));
+    let index = match connections.iter().position(|c| c.port == port) {
+        Some(i) => i,
+        None => match TcpStream::connect(("127.0.0.1", port)) {
+            Ok(stream) => {
+                if stream.set_nodelay(true).is_err() {
+                    return 0;
+                }
+                connections.push(Connection {
+                    port,
+                    process,
+                    stream,
+                });
+                connections.len() - 1
+            }
+            Err(_e) => return 0,
+        },
+    };
+    match write_frame(&mut connections[index].stream, call, value) {
+        Ok(()) => 1,
+        Err(_e) => {
+            connections.swap_remove(index);
+            0
         }
-        Err(_e) => 0,
     }
 }
@@ -53,34 +53,60 @@ pub fn cefswt_execute(browser: *mut cef::cef_browser_t, text: *const c_char) {
 }
 
 #[jni_wrapper("org.eclipse.set.browser.lib.cef_browser_t")]
-pub fn cefswt_eval(
-    browser: *mut cef::cef_browser_t,
-    text: *const c_char,
-    id: i32,
-    callback: unsafe extern "system" fn(work: c_int, kind: c_int, value: *const c_char),
-) -> c_int {
+pub fn cefswt_eval(browser: *mut cef::cef_browser_t, text: *const c_char, id: i32) -> c_int {
     let text_cef = chromium::utils::cef_string_from_c(text);
     let name = chromium::utils::cef_string("eval");
     unsafe {
         let msg = cef::cef_process_message_create(&name);
         let args = (*msg).get_argument_list.unwrap()(msg);
-        let s = (*args).set_int.unwrap()(args, 1, id);
+        let s = (*args).set_int.unwrap()(args, 0, id);
+        assert_eq!(s, 1);
+        let s = (*args).set_string.unwrap()(args, 1, &text_cef);
+        assert_eq!(s, 1);
+        // The result is returned as an eval_result message with the same id
+        let frame = (*browser).get_main_frame.unwrap()(browser);
+        (*frame).send_process_message.unwrap()(frame, cef::cef_process_id_t::PID_RENDERER, msg);
+        1
+    }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_browser_t")]
+pub fn cefswt_eval_batch_create(id: i32) -> *mut cef::cef_process_message_t {
+    let name = chromium::utils::cef_string("eval");
+    unsafe {
+        let msg = cef::cef_process_message_create(&name);
+        let args = (*msg).get_argument_list.unwrap()(msg);
+        let s = (*args).set_int.unwrap()(args, 0, id);
         assert_eq!(s, 1);
-        let s = (*args).set_string.unwrap()(args, 2, &text_cef);
+        msg
+    }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_browser_t")]
+pub fn cefswt_eval_batch_add(message: *mut cef::cef_process_message_t, text: *const c_char) {
+    let text_cef = chromium::utils::cef_string_from_c(text);
+    unsafe {
+        let args = (*message).get_argument_list.unwrap()(message);
+        let size = (*args).get_size.unwrap()(args);
+        let s = (*args).set_string.unwrap()(args, size, &text_cef);
         assert_eq!(s, 1);
-        match chromium_subp::socket::wait_response(
-            browser,
-            msg,
-            args,
+    }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_browser_t")]
+pub fn cefswt_eval_batch_send(
+    browser: *mut cef::cef_browser_t,
+    message: *mut cef::cef_process_message_t,
+) -> c_int {
+    unsafe {
+        // The results are returned as a single eval_result message
+        let frame = (*browser).get_main_frame.unwrap()(browser);
+        (*frame).send_process_message.unwrap()(
+            frame,
             cef::cef_process_id_t::PID_RENDERER,
-            Some(callback),
-        ) {
-            Ok(r) => {
-                callback(0, r.kind as i32, r.str_value.as_ptr());
-                1
-            }
-            Err(_e) => 0,
-        }
+            message,
+        );
+        1
     }
 }
 
@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+use chromium::cef;
+use chromium_jni_macro::jni_wrapper;
+use std::os::raw::c_int;
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_callback_t")]
+pub fn cefswt_callback_cont(callback: *mut cef::_cef_callback_t) {
+    unsafe { (*callback).cont.expect("null cont")(callback) };
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_callback_t")]
+pub fn cefswt_callback_cancel(callback: *mut cef::_cef_callback_t) {
+    unsafe { (*callback).cancel.expect("null cancel")(callback) };
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_resource_read_callback_t")]
+pub fn cefswt_resource_read_callback_cont(
+    callback: *mut cef::_cef_resource_read_callback_t,
+    bytes_read: c_int,
+) {
+    unsafe { (*callback).cont.expect("null cont")(callback, bytes_read) };
+}
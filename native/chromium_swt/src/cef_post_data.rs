@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2026 DB Netz AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ */
+use chromium::cef;
+use chromium_jni_macro::{jni_name, jni_wrapper};
+
+unsafe fn release(object: *mut cef::_cef_base_ref_counted_t) {
+    if !object.is_null() {
+        (*object).release.unwrap()(object);
+    }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_post_data_t")]
+pub fn cefswt_post_data_element_get_bytes_count(
+    element: *mut cef::_cef_post_data_element_t,
+) -> usize {
+    unsafe { (*element).get_bytes_count.unwrap()(element) }
+}
+
+#[jni_name("org.eclipse.set.browser.lib.cef_post_data_t")]
+#[no_mangle]
+#[allow(clippy::not_unsafe_ptr_arg_deref)]
+pub extern "C" fn cefswt_post_data_element_get_bytes(
+    env: jni::JNIEnv,
+    _class: jni::objects::JClass,
+    element: *mut cef::_cef_post_data_element_t,
+    buffer: jni::objects::JByteBuffer,
+) -> jni::sys::jlong {
+    // Copy the element's bytes directly into the (direct) Java buffer
+    let target = env.get_direct_buffer_address(buffer).unwrap();
+    let read = unsafe {
+        (*element).get_bytes.unwrap()(
+            element,
+            target.len(),
+            target.as_mut_ptr() as *mut std::os::raw::c_void,
+        )
+    };
+    read as jni::sys::jlong
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_post_data_t")]
+pub fn cefswt_post_data_element_get_file(
+    element: *mut cef::_cef_post_data_element_t,
+) -> cef::cef_string_userfree_t {
+    unsafe { (*element).get_file.unwrap()(element) }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_post_data_t")]
+pub fn cefswt_post_data_element_get_type(element: *mut cef::_cef_post_data_element_t) -> i32 {
+    unsafe { (*element).get_type.unwrap()(element) as i32 }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_post_data_t")]
+pub fn cefswt_post_data_element_release(element: *mut cef::_cef_post_data_element_t) {
+    unsafe { release(element as *mut cef::_cef_base_ref_counted_t) };
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_post_data_t")]
+pub fn cefswt_post_data_get_element_count(post_data: *mut cef::cef_post_data_t) -> usize {
+    unsafe { (*post_data).get_element_count.unwrap()(post_data) }
+}
+
+/// Fetches the elements of the post data at once, as CEF only provides all
+/// elements together. Stores up to `elements.length` element references in
+/// `elements` and returns their number.
+#[jni_name("org.eclipse.set.browser.lib.cef_post_data_t")]
+#[no_mangle]
+#[allow(clippy::not_unsafe_ptr_arg_deref)]
+pub extern "C" fn cefswt_post_data_get_elements(
+    env: jni::JNIEnv,
+    _class: jni::objects::JClass,
+    post_data: *mut cef::cef_post_data_t,
+    elements: jni::sys::jlongArray,
+) -> jni::sys::jlong {
+    let mut count = env.get_array_length(elements).unwrap().max(0) as usize;
+    if count == 0 {
+        return 0;
+    }
+    let mut fetched: Vec<*mut cef::_cef_post_data_element_t> = vec![std::ptr::null_mut(); count];
+    unsafe { (*post_data).get_elements.unwrap()(post_data, &mut count, fetched.as_mut_ptr()) };
+    let handles: Vec<jni::sys::jlong> =
+        fetched.iter().take(count).map(|element| *element as jni::sys::jlong).collect();
+    env.set_long_array_region(elements, 0, &handles).unwrap();
+    handles.len() as jni::sys::jlong
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_post_data_t")]
+pub fn cefswt_post_data_release(post_data: *mut cef::cef_post_data_t) {
+    unsafe { release(post_data as *mut cef::_cef_base_ref_counted_t) };
+}
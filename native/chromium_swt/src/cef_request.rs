@@ -12,7 +12,7 @@
  *   Guillermo Zunino, Equo - initial implementation
  */
 use chromium::cef;
-use chromium_jni_macro::jni_wrapper;
+use chromium_jni_macro::{jni_name, jni_wrapper};
 use std::os::raw::c_char;
 
 #[jni_wrapper("org.eclipse.set.browser.lib.cef_request_t")]
@@ -32,7 +32,68 @@ pub fn cefswt_request_get_url(request: *mut cef::cef_request_t) -> cef::cef_stri
     unsafe { (*request).get_url.unwrap()(request) }
 }
 
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_request_t")]
+pub fn cefswt_request_set_url(request: *mut cef::cef_request_t, url: *const c_char) {
+    unsafe {
+        let url = chromium::utils::cef_string_from_c(url);
+        (*request).set_url.unwrap()(request, &url);
+    }
+}
+
 #[jni_wrapper("org.eclipse.set.browser.lib.cef_request_t")]
 pub fn cefswt_request_get_method(request: *mut cef::cef_request_t) -> cef::cef_string_userfree_t {
-    unsafe { (*request).get_url.unwrap()(request) }
+    unsafe { (*request).get_method.unwrap()(request) }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.cef_request_t")]
+pub fn cefswt_request_get_post_data(request: *mut cef::cef_request_t) -> *mut cef::cef_post_data_t {
+    unsafe { (*request).get_post_data.unwrap()(request) }
+}
+
+/// Returns all request headers as a flat array of name/value pairs
+#[jni_name("org.eclipse.set.browser.lib.cef_request_t")]
+#[no_mangle]
+#[allow(clippy::not_unsafe_ptr_arg_deref)]
+pub extern "C" fn cefswt_request_get_header_map(
+    env: jni::JNIEnv,
+    _class: jni::objects::JClass,
+    request: *mut cef::cef_request_t,
+) -> jni::sys::jobjectArray {
+    unsafe {
+        let map = cef::cef_string_multimap_alloc();
+        (*request).get_header_map.unwrap()(request, map);
+        let size = cef::cef_string_multimap_size(map);
+
+        let result = env
+            .new_object_array((size * 2) as i32, "java/lang/String", jni::objects::JObject::null())
+            .unwrap();
+        for index in 0..size {
+            let mut key: cef::cef_string_t = std::mem::zeroed();
+            let mut value: cef::cef_string_t = std::mem::zeroed();
+            cef::cef_string_multimap_key(map, index, &mut key);
+            cef::cef_string_multimap_value(map, index, &mut value);
+            set_string_element(&env, result, index * 2, &key);
+            set_string_element(&env, result, index * 2 + 1, &value);
+            cef::cef_string_utf16_clear(&mut key);
+            cef::cef_string_utf16_clear(&mut value);
+        }
+        cef::cef_string_multimap_free(map);
+        result
+    }
+}
+
+fn set_string_element(
+    env: &jni::JNIEnv,
+    array: jni::sys::jobjectArray,
+    index: usize,
+    value: &cef::cef_string_t,
+) {
+    let value = if value.length == 0 {
+        String::new()
+    } else {
+        chromium::utils::str_from_cef(value)
+    };
+    let value = env.new_string(value).unwrap();
+    env.set_object_array_element(array, index as i32, value).unwrap();
+    env.delete_local_ref(*value).unwrap();
 }
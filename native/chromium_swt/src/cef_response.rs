@@ -13,7 +13,7 @@
  */
 use std::os::raw::c_char;
 
-use chromium_jni_macro::jni_wrapper;
+use chromium_jni_macro::{jni_name, jni_wrapper};
 
 #[jni_wrapper("org.eclipse.set.browser.lib.cef_response_t")]
 pub fn cefswt_response_set_mime_type(
@@ -50,3 +50,35 @@ pub fn cefswt_response_set_header(
         (*response).set_header_by_name.unwrap()(response, &name, &value, 1);
     }
 }
+
+/// Replaces all response headers with a flat array of name/value pairs
+#[jni_name("org.eclipse.set.browser.lib.cef_response_t")]
+#[no_mangle]
+#[allow(clippy::not_unsafe_ptr_arg_deref)]
+pub extern "C" fn cefswt_response_set_header_map(
+    env: jni::JNIEnv,
+    _class: jni::objects::JClass,
+    response: *mut chromium::cef::cef_response_t,
+    headers: jni::sys::jobjectArray,
+) {
+    unsafe {
+        let map = chromium::cef::cef_string_multimap_alloc();
+        let length = env.get_array_length(headers).unwrap();
+        for index in (0..length - 1).step_by(2) {
+            let name = get_string_element(&env, headers, index);
+            let value = get_string_element(&env, headers, index + 1);
+            let name = chromium::utils::cef_string(&name);
+            let value = chromium::utils::cef_string(&value);
+            chromium::cef::cef_string_multimap_append(map, &name, &value);
+        }
+        (*response).set_header_map.unwrap()(response, map);
+        chromium::cef::cef_string_multimap_free(map);
+    }
+}
+
+fn get_string_element(env: &jni::JNIEnv, array: jni::sys::jobjectArray, index: i32) -> String {
+    let element = env.get_object_array_element(array, index).unwrap();
+    let value: String = env.get_string(element.into()).unwrap().into();
+    env.delete_local_ref(element).unwrap();
+    value
+}
@@ -17,8 +17,10 @@ use chromium_jni_macro::{jni_name, jni_wrapper};
 
 mod app;
 pub mod cef_browser;
+pub mod cef_callback;
 pub mod cef_cookie;
 pub mod cef_download_item;
+pub mod cef_post_data;
 pub mod cef_request;
 pub mod cef_response;
 
@@ -168,57 +170,101 @@ pub fn cefswt_do_message_loop_work() -> c_int {
 #[repr(C)]
 #[derive(Debug)]
 pub struct FunctionSt {
+    pub call: i32,
     pub id: i32,
     pub port: i32,
-    pub args: usize,
+    pub process: i32,
 }
 
 pub unsafe fn cefswt_function_id(message: *mut cef::cef_process_message_t, st: *mut FunctionSt) {
     let valid = (*message).is_valid.unwrap()(message);
     let name = (*message).get_name.unwrap()(message);
+    (*st).call = 0;
     (*st).id = -1;
-    (*st).args = 0;
     (*st).port = 0;
+    (*st).process = 0;
     if valid == 1
         && cef::cef_string_utf16_cmp(&chromium::utils::cef_string("function_call"), name) == 0
     {
         let args = (*message).get_argument_list.unwrap()(message);
-        let args_len = (*args).get_size.unwrap()(args);
-        let port = (*args).get_int.unwrap()(args, 0);
-        (*st).id = (*args).get_int.unwrap()(args, 1);
-        (*st).args = (args_len - 1) / 2;
-        (*st).port = port;
+        (*st).port = (*args).get_int.unwrap()(args, 0);
+        (*st).process = (*args).get_int.unwrap()(args, 1);
+        (*st).call = (*args).get_int.unwrap()(args, 2);
+        (*st).id = (*args).get_int.unwrap()(args, 3);
     }
 }
 
 #[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
-pub fn cefswt_function_arg(
-    message: *mut cef::cef_process_message_t,
-    index: i32,
-    callback: unsafe extern "system" fn(work: c_int, kind: c_int, value: *const c_char),
-) {
-    unsafe {
-        let args = (*message).get_argument_list.unwrap()(message);
-        let kind = (*args).get_int.unwrap()(args, (1 + index * 2 + 1) as usize);
-        let arg = (*args).get_string.unwrap()(args, (1 + index * 2 + 2) as usize);
-        let cstr = chromium::utils::cstr_from_cef(arg);
-        let kind = chromium_subp::socket::ReturnType::from(kind);
-        callback(0, kind as i32, cstr);
-    }
+pub fn cefswt_function_prune() {
+    chromium_subp::socket::prune()
 }
 
 #[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
 pub fn cefswt_function_return(
     _browser: *mut cef::cef_browser_t,
-    _id: i32,
+    call: i32,
+    process: i32,
     port: i32,
-    kind: i32,
-    ret: *const c_char,
+    ret: Vec<u8>,
 ) -> c_int {
-    let cstr = unsafe { std::ffi::CStr::from_ptr(ret) };
-    chromium_subp::socket::socket_client(port as u16, cstr.to_owned(), unsafe {
-        std::mem::transmute(kind)
-    })
+    chromium_subp::socket::reply(process, port as u16, call, &ret)
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
+pub fn cefswt_eval_result_id(message: *mut cef::cef_process_message_t) -> c_int {
+    unsafe {
+        let valid = (*message).is_valid.unwrap()(message);
+        let name = (*message).get_name.unwrap()(message);
+        let id = if valid == 1
+            && cef::cef_string_utf16_cmp(&chromium::utils::cef_string("eval_result"), name) == 0
+        {
+            let args = (*message).get_argument_list.unwrap()(message);
+            (*args).get_int.unwrap()(args, 0)
+        } else {
+            -1
+        };
+        cef::cef_string_userfree_utf16_free(name);
+        id
+    }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
+pub fn cefswt_message_size(message: *mut cef::cef_process_message_t) -> c_int {
+    unsafe {
+        let args = (*message).get_argument_list.unwrap()(message);
+        (*args).get_size.unwrap()(args) as c_int
+    }
+}
+
+#[jni_name("org.eclipse.set.browser.lib.ChromiumLib")]
+#[no_mangle]
+#[allow(clippy::not_unsafe_ptr_arg_deref)]
+pub extern "C" fn cefswt_message_binary(
+    env: jni::JNIEnv,
+    _class: jni::objects::JClass,
+    message: *mut cef::cef_process_message_t,
+    index: jni::sys::jint,
+) -> jni::sys::jobject {
+    unsafe {
+        let args = (*message).get_argument_list.unwrap()(message);
+        if (*args).get_type.unwrap()(args, index as usize) != cef::cef_value_type_t::VTYPE_BINARY {
+            return std::ptr::null_mut();
+        }
+        let binary = (*args).get_binary.unwrap()(args, index as usize);
+        let size = (*binary).get_size.unwrap()(binary);
+        let data = (*binary).get_raw_data.unwrap()(binary) as *mut u8;
+        // The list keeps the data alive while the message is processed, so
+        // the buffer directly references it without copying
+        ((*binary).base.release.unwrap())(&mut (*binary).base);
+        if data.is_null() || size == 0 {
+            return env
+                .new_direct_byte_buffer(&mut [])
+                .unwrap()
+                .into_inner();
+        }
+        let data = std::slice::from_raw_parts_mut(data, size);
+        env.new_direct_byte_buffer(data).unwrap().into_inner()
+    }
 }
 
 #[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
@@ -284,6 +330,21 @@ pub fn cefswt_go_back(browser: *mut cef::_cef_browser_t) {
     unsafe { (*browser).go_back.expect("null go_back")(browser) };
 }
 
+/// Registers a scheme handler factory. CEF takes over a reference for each
+/// registration, while the caller keeps its own.
+unsafe fn register_factory(
+    scheme: &cef::cef_string_t,
+    name: &cef::cef_string_t,
+    factory: *mut cef::_cef_scheme_handler_factory_t,
+) {
+    if !factory.is_null() {
+        if let Some(add_ref) = (*factory).base.add_ref {
+            add_ref(&mut (*factory).base);
+        }
+    }
+    cef::cef_register_scheme_handler_factory(scheme, name, factory);
+}
+
 #[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
 pub fn cefswt_register_http_host(
     name: *const c_char,
@@ -293,8 +354,51 @@ pub fn cefswt_register_http_host(
         let https = chromium::utils::cef_string("https");
         let http = chromium::utils::cef_string("http");
         let name = chromium::utils::cef_string_from_c(name);
-        cef::cef_register_scheme_handler_factory(&http, &name, factory);
-        cef::cef_register_scheme_handler_factory(&https, &name, factory);
+        register_factory(&http, &name, factory);
+        register_factory(&https, &name, factory);
+    }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
+pub fn cefswt_register_scheme_handler(
+    scheme: *const c_char,
+    name: *const c_char,
+    factory: *mut cef::_cef_scheme_handler_factory_t,
+) {
+    unsafe {
+        let scheme = chromium::utils::cef_string_from_c(scheme);
+        let name = chromium::utils::cef_string_from_c(name);
+        register_factory(&scheme, &name, factory);
+    }
+}
+
+/// Releases the caller's reference to a scheme handler factory. It is freed
+/// once CEF has released the references of its registrations as well.
+#[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
+pub fn cefswt_release_scheme_handler_factory(factory: *mut cef::_cef_scheme_handler_factory_t) {
+    unsafe {
+        if let Some(release) = (*factory).base.release {
+            release(&mut (*factory).base);
+        }
+    }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
+pub fn cefswt_add_custom_scheme(
+    registrar: *mut cef::_cef_scheme_registrar_t,
+    scheme: *const c_char,
+    options: c_int,
+) -> c_int {
+    unsafe {
+        let scheme = chromium::utils::cef_string_from_c(scheme);
+        (*registrar).add_custom_scheme.unwrap()(registrar, &scheme, options)
+    }
+}
+
+#[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
+pub fn cefswt_set_int64ptr(ptr: *mut i64, value: i64) {
+    unsafe {
+        (*ptr) = value;
     }
 }
 
@@ -322,6 +426,23 @@ pub extern "C" fn cefswt_cstring_to_java(
         .into_inner()
 }
 
+#[jni_name("org.eclipse.set.browser.lib.ChromiumLib")]
+#[no_mangle]
+#[allow(clippy::not_unsafe_ptr_arg_deref)]
+pub extern "C" fn cefswt_direct_buffer(
+    env: jni::JNIEnv,
+    _class: jni::objects::JClass,
+    data: *mut u8,
+    length: jni::sys::jint,
+) -> jni::sys::jobject {
+    if data.is_null() {
+        return std::ptr::null_mut();
+    }
+    // The buffer directly references the native memory, so no data is copied
+    let data = unsafe { std::slice::from_raw_parts_mut(data, length as usize) };
+    env.new_direct_byte_buffer(data).unwrap().into_inner()
+}
+
 #[jni_wrapper("org.eclipse.set.browser.lib.ChromiumLib")]
 pub fn cefswt_cefstring_to_java(string: *mut chromium::cef::_cef_string_utf16_t) -> *mut c_char {
     chromium::utils::cstr_from_cef(string)